@@ -37,4 +37,13 @@ public enum BlockType {
     public float getHardness() {
         return hardness;
     }
+
+    // Hides the faces of whatever is behind it
+    public boolean isOpaque() {
+        return solid;
+    }
+
+    public boolean isLiquid() {
+        return this == WATER || this == OIL;
+    }
 }
@@ -0,0 +1,120 @@
+package io.github.half;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import io.github.half.mesh.SectionConnectivity;
+
+/**
+ * Potentially visible sections from the camera, by a breadth-first walk over section faces: a section
+ * is entered through one face and only left through faces its SectionConnectivity links to that one,
+ * and the walk never turns back against a direction it already went. Sections behind solid rock, such
+ * as caves under the ground the camera looks at from above, are never reached.
+ *
+ * Works on plain Column objects and never touches GL, so it runs headless. Not thread-safe.
+ */
+public class CaveCuller {
+    private static final int CHUNK_SIZE = 16;
+    private static final int SECTION_SIZE = 16;
+
+    private final Array<Column> queueColumns = new Array<>();
+    private final IntArray queueStates = new IntArray(); // section | entry face << 8 | directions << 16
+    private int stamp;
+    private int visited;
+
+    // A chunk column as the culler sees it; ChunkRenderList entries extend it
+    public static class Column {
+        public final int chunkX;
+        public final int chunkZ;
+        private long[] connectivity; // Null while the chunk has no mesh; the walk does not enter it
+        private int visibleStamp;
+        private int visibleMask;
+
+        public Column(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        public void setConnectivity(long[] connectivity) {
+            this.connectivity = connectivity;
+        }
+
+        // Bit per section that the last walk reached
+        public int getVisibleMask(CaveCuller culler) {
+            return visibleStamp == culler.stamp ? visibleMask : 0;
+        }
+    }
+
+    public interface ColumnLookup {
+        Column getColumn(int chunkX, int chunkZ);
+    }
+
+    /**
+     * Walks from the section holding the camera. Returns false, leaving nothing marked, if the camera
+     * is not inside a meshed section (above or below the world, or over a chunk that is not loaded);
+     * the caller should then treat everything as visible.
+     */
+    public boolean compute(ColumnLookup columns, int sectionCount, float cameraX, float cameraY, float cameraZ) {
+        stamp++;
+        visited = 0;
+        int chunkX = Math.floorDiv((int) Math.floor(cameraX), CHUNK_SIZE);
+        int chunkZ = Math.floorDiv((int) Math.floor(cameraZ), CHUNK_SIZE);
+        int section = (int) Math.floor(cameraY / SECTION_SIZE);
+        Column start = columns.getColumn(chunkX, chunkZ);
+        if (start == null || start.connectivity == null || section < 0 || section >= sectionCount) {
+            return false;
+        }
+
+        queueColumns.clear();
+        queueStates.clear();
+        mark(start, section);
+        // No entry face yet: every way out of the camera's section is open
+        enqueue(start, section, SectionConnectivity.FACES, 0);
+
+        for (int head = 0; head < queueColumns.size; head++) {
+            Column column = queueColumns.get(head);
+            int state = queueStates.get(head);
+            int current = state & 0xFF;
+            int entry = (state >> 8) & 0xFF;
+            int directions = state >> 16;
+            long connectivity = column.connectivity[current];
+
+            for (int face = 0; face < SectionConnectivity.FACES; face++) {
+                // Never walk back against a direction already taken
+                if ((directions & (1 << SectionConnectivity.opposite(face))) != 0) continue;
+                if (entry != SectionConnectivity.FACES && !SectionConnectivity.isConnected(connectivity, entry, face)) continue;
+
+                int nextSection = current + SectionConnectivity.DY[face];
+                if (nextSection < 0 || nextSection >= sectionCount) continue;
+                Column next = column;
+                if (SectionConnectivity.DX[face] != 0 || SectionConnectivity.DZ[face] != 0) {
+                    next = columns.getColumn(column.chunkX + SectionConnectivity.DX[face], column.chunkZ + SectionConnectivity.DZ[face]);
+                    if (next == null || next.connectivity == null) continue;
+                }
+                if ((next.getVisibleMask(this) & (1 << nextSection)) != 0) continue;
+
+                mark(next, nextSection);
+                enqueue(next, nextSection, SectionConnectivity.opposite(face), directions | (1 << face));
+            }
+        }
+        return true;
+    }
+
+    private void mark(Column column, int section) {
+        if (column.visibleStamp != stamp) {
+            column.visibleStamp = stamp;
+            column.visibleMask = 0;
+        }
+        column.visibleMask |= 1 << section;
+        visited++;
+    }
+
+    private void enqueue(Column column, int section, int entryFace, int directions) {
+        queueColumns.add(column);
+        queueStates.add(section | entryFace << 8 | directions << 16);
+    }
+
+    // Sections reached by the last walk
+    public int getVisitedCount() {
+        return visited;
+    }
+}
@@ -6,29 +6,81 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.Array;
+import io.github.half.mesh.BlockPalette;
+import io.github.half.mesh.ChunkMeshData;
+import io.github.half.mesh.GreedyMesher;
+import io.github.half.mesh.PaddedBlocks;
+import io.github.half.mesh.SectionConnectivity;
+import io.github.half.storage.ChunkSection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
 public class Chunk {
     public final int chunkX, chunkZ;
     protected static final int CHUNK_SIZE = 16;
     protected static final int WORLD_HEIGHT = 64;
+    protected static final int SECTION_SIZE = ChunkSection.SIZE;
+    protected static final int SECTION_COUNT = WORLD_HEIGHT / SECTION_SIZE;
+    private static final int COLUMN_COUNT = CHUNK_SIZE * CHUNK_SIZE;
+    // +x, -x, +z, -z; bit i of generatedBorderSides is SIDES[i]
+    private static final int[][] SIDES = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    // Work-stealing pool shared by every chunk generated with generate(true)
+    private static final ForkJoinPool COLUMN_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    // Block snapshot reused by every mesh built on a thread; snapshotForMesh overwrites all of it that is read
+    private static final ThreadLocal<PaddedBlocks> MESH_SNAPSHOT =
+        ThreadLocal.withInitial(() -> new PaddedBlocks(CHUNK_SIZE, WORLD_HEIGHT, CHUNK_SIZE));
 
-    private BlockType[][][] blocks;
-    private Array<ModelInstance> instances;
+    private final ChunkSection[] sections;
     private Array<ModelInstance> renderInstances; // NOVO: Snapshot thread-safe para render
+    private final Array<ModelInstance> translucentInstances = new Array<>(); // Drawn after every opaque chunk
+    // The same instances by section (null where a section has nothing), so sections can be culled on their own
+    private final ModelInstance[] opaqueSections = new ModelInstance[SECTION_COUNT];
+    private final ModelInstance[] translucentSections = new ModelInstance[SECTION_COUNT];
+    private long[] sectionConnectivity; // Of the uploaded mesh, see SectionConnectivity
+    private ChunkMeshData pendingMesh; // Built by createMesh, waiting for uploadMesh
+    private Model model; // Owns the chunk's GL meshes
+    private volatile boolean disposed;
+    private volatile int meshVersion; // Bumped whenever the render instances change
+    private int faceCount;
+    private int quadCount;
     private WorldGenerator worldGenerator;
-    private Model[] blockModels;
+    private BlockPalette palette;
     private BoundingBox boundingBox;
     protected boolean generated = false;
     private boolean needsRebuild = false;
     private boolean meshReady = false; // NOVO: Flag para saber se mesh está pronto
+    private volatile boolean dirty = false; // Block data differs from what is persisted
+    private volatile ChunkStage stage = ChunkStage.NONE;
+    private float[] columnSamples; // Kept from terrain for the decoration stage
+    private final byte[] skyHeight = new byte[COLUMN_COUNT];
+    private volatile NeighborLookup neighbors;
+    // Terrain-only columns just outside each side, made once for meshing while that neighbor is missing
+    private final BlockType[][] generatedBorders = new BlockType[SIDES.length][];
+    private volatile int generatedBorderSides; // Sides the current mesh took from generatedBorders
 
-    public Chunk(int chunkX, int chunkZ, WorldGenerator worldGenerator, Model[] blockModels) {
+    // Where meshing finds the chunks next to this one; ChunkManager covers loaded and in-pipeline chunks
+    public interface NeighborLookup {
+        Chunk getChunk(int chunkX, int chunkZ);
+    }
+
+    public Chunk(int chunkX, int chunkZ, WorldGenerator worldGenerator, BlockPalette palette) {
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
         this.worldGenerator = worldGenerator;
-        this.blockModels = blockModels;
-        this.blocks = new BlockType[CHUNK_SIZE][WORLD_HEIGHT][CHUNK_SIZE];
-        this.instances = new Array<>();
+        this.palette = palette;
+        this.sections = new ChunkSection[SECTION_COUNT];
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            sections[i] = new ChunkSection();
+        }
         this.renderInstances = new Array<>(); // NOVO: Inicializa snapshot
 
         // Calculate bounding box
@@ -40,108 +92,386 @@ public class Chunk {
     }
 
     public void generate() {
+        generate(false);
+    }
+
+    // All stages back to back on the calling thread; ChunkPipeline runs them on separate executors instead
+    public void generate(boolean parallel) {
         if (generated) return;
+        generateTerrain(parallel);
+        decorate(parallel);
+        computeLight();
+        createMesh();
+    }
+
+    /**
+     * TERRAIN stage: base blocks from WorldGenerator.generateColumn. With parallel set, the 256 columns
+     * are split into fork-join tasks on a pool shared by all chunks, which cuts latency for the chunks
+     * the player is standing in. Without it the whole chunk is one task on the calling thread, which
+     * is the better trade for throughput when many far chunks are queued.
+     */
+    public void generateTerrain(boolean parallel) {
+        // Generate blocks column by column so per-column work (height, biome) happens once.
+        // Sections start as uniform air, so everything above the column top is a free bulk fill.
+        // The per-column base values for the whole chunk come from one batch of grid noise calls.
+        float[] samples = worldGenerator.sampleColumns(chunkX * CHUNK_SIZE, chunkZ * CHUNK_SIZE, CHUNK_SIZE, CHUNK_SIZE, 1);
+        if (parallel) {
+            BlockType[][] columns = new BlockType[COLUMN_COUNT][];
+            int[] tops = new int[COLUMN_COUNT];
+            COLUMN_POOL.invoke(new ColumnTask(i -> {
+                BlockType[] column = new BlockType[WORLD_HEIGHT];
+                tops[i] = worldGenerator.generateColumn(worldX(i), worldZ(i), samples[i], column);
+                columns[i] = column;
+            }, 0, COLUMN_COUNT));
+            // Section writes are not meant for concurrent use, so the results are committed on this thread
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                commitColumn(i % CHUNK_SIZE, i / CHUNK_SIZE, columns[i], tops[i]);
+            }
+        } else {
+            BlockType[] column = new BlockType[WORLD_HEIGHT];
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                int top = worldGenerator.generateColumn(worldX(i), worldZ(i), samples[i], column);
+                commitColumn(i % CHUNK_SIZE, i / CHUNK_SIZE, column, top);
+            }
+        }
+        trimSections();
+        columnSamples = samples;
+        dirty = true;
+        stage = ChunkStage.TERRAIN;
+    }
+
+    // DECORATION stage: WorldGenerator.decorateColumn over every column, parallel the same way as terrain
+    public void decorate(boolean parallel) {
+        if (worldGenerator.hasDecoration()) {
+            float[] samples = columnSamples != null ? columnSamples
+                : worldGenerator.sampleColumns(chunkX * CHUNK_SIZE, chunkZ * CHUNK_SIZE, CHUNK_SIZE, CHUNK_SIZE, 1);
+            BlockType[][] changed = new BlockType[COLUMN_COUNT][];
+            IntConsumer decorateColumn = i -> {
+                BlockType[] column = new BlockType[WORLD_HEIGHT];
+                for (int y = 0; y < WORLD_HEIGHT; y++) {
+                    column[y] = getBlock(i % CHUNK_SIZE, y, i / CHUNK_SIZE);
+                }
+                if (worldGenerator.decorateColumn(worldX(i), worldZ(i), samples[i], column)) {
+                    changed[i] = column;
+                }
+            };
+            if (parallel) {
+                COLUMN_POOL.invoke(new ColumnTask(decorateColumn, 0, COLUMN_COUNT));
+            } else {
+                for (int i = 0; i < COLUMN_COUNT; i++) {
+                    decorateColumn.accept(i);
+                }
+            }
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                if (changed[i] == null) continue;
+                // Decoration may carve air into terrain, so every differing block is written
+                for (int y = 0; y < WORLD_HEIGHT; y++) {
+                    if (getBlock(i % CHUNK_SIZE, y, i / CHUNK_SIZE) != changed[i][y]) {
+                        setBlock(i % CHUNK_SIZE, y, i / CHUNK_SIZE, changed[i][y]);
+                    }
+                }
+            }
+            trimSections();
+        }
+        columnSamples = null;
+        generated = true;
+        stage = ChunkStage.DECORATION;
+    }
 
-        // Generate blocks
+    // LIGHT stage. There is no light propagation yet; this records the sky heightmap (first air block
+    // above the highest non-air block of each column), which is what sky light would start from.
+    public void computeLight() {
         for (int x = 0; x < CHUNK_SIZE; x++) {
-            for (int y = 0; y < WORLD_HEIGHT; y++) {
-                for (int z = 0; z < CHUNK_SIZE; z++) {
-                    int worldX = chunkX * CHUNK_SIZE + x;
-                    int worldZ = chunkZ * CHUNK_SIZE + z;
-                    blocks[x][y][z] = worldGenerator.getBlockAt(worldX, y, worldZ);
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                updateSkyHeight(x, z);
+            }
+        }
+        stage = ChunkStage.LIGHT;
+    }
+
+    private void updateSkyHeight(int x, int z) {
+        int height = 0;
+        for (int sectionY = SECTION_COUNT - 1; sectionY >= 0 && height == 0; sectionY--) {
+            ChunkSection section = sections[sectionY];
+            if (section.getUniformType() == BlockType.AIR) continue;
+            for (int localY = SECTION_SIZE - 1; localY >= 0; localY--) {
+                if (section.get(x, localY, z) != BlockType.AIR) {
+                    height = sectionY * SECTION_SIZE + localY + 1;
+                    break;
                 }
             }
         }
+        skyHeight[x + z * CHUNK_SIZE] = (byte) height;
+    }
 
-        // Create mesh instances
-        createMesh();
-        generated = true;
+    // Height of the first sky-exposed block in the column, 0 for an all-air column
+    public int getSkyHeight(int x, int z) {
+        return skyHeight[x + z * CHUNK_SIZE];
     }
 
-    // THREAD-SAFE createMesh
-    public void createMesh() {
-        // Cria array local para não interferir no rendering
-        Array<ModelInstance> newInstances = new Array<>();
-        int totalBlocks = 0;
-        int visibleBlocks = 0;
-        int addedInstances = 0;
+    public void setNeighborLookup(NeighborLookup neighbors) {
+        this.neighbors = neighbors;
+    }
 
-        System.out.println("Creating mesh for chunk (" + chunkX + ", " + chunkZ + ")");
+    public ChunkStage getStage() {
+        return stage;
+    }
 
-        for (int x = 0; x < CHUNK_SIZE; x++) {
-            for (int y = 0; y < WORLD_HEIGHT; y++) {
-                for (int z = 0; z < CHUNK_SIZE; z++) {
-                    try {
-                        BlockType blockType = blocks[x][y][z];
-                        totalBlocks++;
-
-                        if (blockType != null && blockType != BlockType.AIR) {
-                            if (isBlockVisible(x, y, z)) {
-                                visibleBlocks++;
-
-                                if (blockModels != null && blockType.ordinal() < blockModels.length
-                                    && blockModels[blockType.ordinal()] != null) {
-
-                                    ModelInstance instance = new ModelInstance(blockModels[blockType.ordinal()]);
-                                    float worldX = chunkX * CHUNK_SIZE + x;
-                                    float worldZ = chunkZ * CHUNK_SIZE + z;
-                                    instance.transform.setToTranslation(worldX, y, worldZ);
-                                    newInstances.add(instance);
-                                    addedInstances++;
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        System.out.println("Error at (" + x + "," + y + "," + z + "): " + e);
-                    }
-                }
+    private int worldX(int column) {
+        return chunkX * CHUNK_SIZE + column % CHUNK_SIZE;
+    }
+
+    private int worldZ(int column) {
+        return chunkZ * CHUNK_SIZE + column / CHUNK_SIZE;
+    }
+
+    private void commitColumn(int x, int z, BlockType[] column, int top) {
+        for (int y = 0; y < top; y++) {
+            if (column[y] != BlockType.AIR) {
+                setBlock(x, y, z, column[y]);
+            }
+        }
+    }
+
+    // Splits a range of column indices (x + z * CHUNK_SIZE) until it is one row of the chunk.
+    // Serializable only through RecursiveAction; never serialized.
+    @SuppressWarnings("serial")
+    private static class ColumnTask extends RecursiveAction {
+        private final IntConsumer work;
+        private final int from, to;
+
+        ColumnTask(IntConsumer work, int from, int to) {
+            this.work = work;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ColumnTask(work, from, mid), new ColumnTask(work, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                work.accept(i);
             }
         }
+    }
+
+    // Builds the greedy mesh on the calling thread; the GL side is created later by uploadMesh on the render thread
+    public void createMesh() {
+        PaddedBlocks blocks = snapshotForMesh();
+        ChunkMeshData data = GreedyMesher.mesh(blocks, palette, CHUNK_SIZE, WORLD_HEIGHT, CHUNK_SIZE, SECTION_SIZE);
+        data.sectionConnectivity = new long[SECTION_COUNT];
+        for (int s = 0; s < SECTION_COUNT; s++) {
+            // Uniform sections (sky, open water, solid stone) need no flood fill
+            BlockType uniform = sections[s].getUniformType();
+            data.sectionConnectivity[s] = uniform != null ? SectionConnectivity.ofUniform(uniform)
+                : SectionConnectivity.compute(blocks, CHUNK_SIZE, CHUNK_SIZE, s * SECTION_SIZE, SECTION_SIZE);
+        }
 
-        // ATOMIC SWAP - só uma operação thread-safe
+        ChunkMeshData replaced;
         synchronized (this) {
-            instances.clear();
-            instances.addAll(newInstances);
+            // A rebuild can finish after the chunk was unloaded; its result must not reach the GPU
+            if (disposed) {
+                data.release();
+                return;
+            }
+            replaced = pendingMesh;
+            pendingMesh = data;
+            faceCount = data.faceCount;
+            quadCount = data.quadCount;
+        }
+        // Superseded before it was uploaded
+        if (replaced != null) replaced.release();
 
-            // Cria snapshot para rendering
-            renderInstances.clear();
-            renderInstances.addAll(newInstances);
+        System.out.println("Chunk (" + chunkX + ", " + chunkZ + ") - Faces: " + data.faceCount + ", Quads: " + data.quadCount
+            + ", Parts: " + data.parts.size);
+        needsRebuild = false;
+        stage = ChunkStage.MESH;
+    }
+
+    public synchronized boolean hasPendingMesh() {
+        return pendingMesh != null;
+    }
+
+    // Size of the vertex and index data uploadMesh would send to the GPU
+    public synchronized long getPendingMeshBytes() {
+        return pendingMesh == null ? 0 : MeshModels.getByteSize(pendingMesh);
+    }
 
+    /**
+     * Turns the latest mesh data into one Model (see MeshModels) and swaps it in, with one instance per
+     * section and layer. Must run on the render thread.
+     */
+    public void uploadMesh() {
+        ChunkMeshData data;
+        synchronized (this) {
+            data = pendingMesh;
+            pendingMesh = null;
+        }
+        if (data == null) return;
+        if (disposed) {
+            data.release();
+            return;
+        }
+
+        Model newModel = MeshModels.build(data, palette);
+
+        Model oldModel;
+        synchronized (this) {
+            oldModel = model;
+            model = newModel;
+            renderInstances.clear();
+            translucentInstances.clear();
+            for (int s = 0; s < SECTION_COUNT; s++) {
+                opaqueSections[s] = createInstance(newModel, MeshModels.nodeId(false, s));
+                translucentSections[s] = createInstance(newModel, MeshModels.nodeId(true, s));
+                if (opaqueSections[s] != null) renderInstances.add(opaqueSections[s]);
+                if (translucentSections[s] != null) translucentInstances.add(translucentSections[s]);
+            }
+            sectionConnectivity = data.sectionConnectivity;
+            if (!data.isEmpty()) {
+                // Cull against what is drawn, not the full world height
+                boundingBox.min.y = data.minY;
+                boundingBox.max.y = data.maxY;
+                boundingBox.update();
+            }
             meshReady = true;
+            meshVersion++;
+        }
+        if (oldModel != null) {
+            oldModel.dispose();
         }
+    }
 
-        System.out.println("Chunk (" + chunkX + ", " + chunkZ + ") - Total: " + totalBlocks +
-            ", Visible: " + visibleBlocks + ", Instances: " + addedInstances);
-        needsRebuild = false;
+    private ModelInstance createInstance(Model model, String nodeId) {
+        if (model == null || model.getNode(nodeId) == null) return null;
+        ModelInstance instance = new ModelInstance(model, nodeId);
+        instance.transform.setToTranslation(chunkX * CHUNK_SIZE, 0, chunkZ * CHUNK_SIZE);
+        return instance;
     }
 
-    private boolean isBlockVisible(int x, int y, int z) {
-        // Check if any adjacent face is exposed to air
-        return isAir(x + 1, y, z) || isAir(x - 1, y, z) ||
-            isAir(x, y + 1, z) || isAir(x, y - 1, z) ||
-            isAir(x, y, z + 1) || isAir(x, y, z - 1);
+    // Visible faces and merged quads in the most recent mesh
+    public synchronized int getFaceCount() {
+        return faceCount;
     }
 
-    private boolean isAir(int x, int y, int z) {
-        if (y < 0 || y >= WORLD_HEIGHT) {
-            return y >= WORLD_HEIGHT; // Above world is air, below is solid
+    public synchronized int getQuadCount() {
+        return quadCount;
+    }
+
+    /**
+     * This chunk's blocks plus the ring of columns around it. Each side comes from the neighbor chunk
+     * once its blocks are final, so borders match its decoration and edits; otherwise from a cached
+     * terrain-only border, which never runs the expensive decoration (WFC) for single voxels. Sides
+     * filled from the cache are remembered so ChunkManager can remesh once the neighbor arrives.
+     */
+    private PaddedBlocks snapshotForMesh() {
+        PaddedBlocks padded = MESH_SNAPSHOT.get();
+        BlockType[] column = new BlockType[WORLD_HEIGHT];
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                readColumn(x, z, column);
+                padded.setColumn(x, z, column, 0);
+            }
         }
 
-        // Check within chunk bounds
-        if (x >= 0 && x < CHUNK_SIZE && z >= 0 && z < CHUNK_SIZE) {
-            return blocks[x][y][z] == BlockType.AIR;
+        NeighborLookup lookup = neighbors;
+        int fromGenerator = 0;
+        for (int side = 0; side < SIDES.length; side++) {
+            int dx = SIDES[side][0];
+            int dz = SIDES[side][1];
+            Chunk neighbor = lookup != null ? lookup.getChunk(chunkX + dx, chunkZ + dz) : null;
+            boolean useNeighbor = neighbor != null && neighbor.getStage().isAtLeast(ChunkStage.DECORATION);
+            BlockType[] border = null;
+            if (useNeighbor) {
+                generatedBorders[side] = null; // Not needed while the neighbor is around
+            } else {
+                border = getGeneratedBorder(side);
+                fromGenerator |= 1 << side;
+            }
+            for (int k = 0; k < CHUNK_SIZE; k++) {
+                // Ring coordinates of the k-th column along this side, -1 or CHUNK_SIZE across it
+                int x = dx == 0 ? k : (dx > 0 ? CHUNK_SIZE : -1);
+                int z = dz == 0 ? k : (dz > 0 ? CHUNK_SIZE : -1);
+                if (useNeighbor) {
+                    neighbor.readColumn(Math.floorMod(x, CHUNK_SIZE), Math.floorMod(z, CHUNK_SIZE), column);
+                    padded.setColumn(x, z, column, 0);
+                } else {
+                    padded.setColumn(x, z, border, k * WORLD_HEIGHT);
+                }
+            }
         }
+        generatedBorderSides = fromGenerator;
+        return padded;
+    }
 
-        // Outside chunk bounds - check with world generator
-        int worldX = chunkX * CHUNK_SIZE + x;
-        int worldZ = chunkZ * CHUNK_SIZE + z;
-        return worldGenerator.getBlockAt(worldX, y, worldZ) == BlockType.AIR;
+    // Uniform sections are filled in bulk, which is most of a chunk
+    private void readColumn(int x, int z, BlockType[] column) {
+        for (int s = 0; s < SECTION_COUNT; s++) {
+            ChunkSection section = sections[s];
+            int base = s * SECTION_SIZE;
+            BlockType uniform = section.getUniformType();
+            if (uniform != null) {
+                Arrays.fill(column, base, base + SECTION_SIZE, uniform);
+            } else {
+                for (int y = 0; y < SECTION_SIZE; y++) {
+                    column[base + y] = section.get(x, y, z);
+                }
+            }
+        }
+    }
+
+    // Only touched by the mesh stage, which is a single thread
+    private BlockType[] getGeneratedBorder(int side) {
+        BlockType[] border = generatedBorders[side];
+        if (border != null) return border;
+
+        int dx = SIDES[side][0];
+        int dz = SIDES[side][1];
+        int originX = chunkX * CHUNK_SIZE + (dx == 0 ? 0 : (dx > 0 ? CHUNK_SIZE : -1));
+        int originZ = chunkZ * CHUNK_SIZE + (dz == 0 ? 0 : (dz > 0 ? CHUNK_SIZE : -1));
+        int sizeX = dx == 0 ? CHUNK_SIZE : 1;
+        int sizeZ = dz == 0 ? CHUNK_SIZE : 1;
+        float[] samples = worldGenerator.sampleColumns(originX, originZ, sizeX, sizeZ, 1);
+
+        border = new BlockType[CHUNK_SIZE * WORLD_HEIGHT];
+        BlockType[] column = new BlockType[WORLD_HEIGHT];
+        for (int k = 0; k < CHUNK_SIZE; k++) {
+            Arrays.fill(column, BlockType.AIR); // generateColumn leaves everything above the top alone
+            worldGenerator.generateColumn(originX + (dx == 0 ? k : 0), originZ + (dz == 0 ? k : 0), samples[k], column);
+            System.arraycopy(column, 0, border, k * WORLD_HEIGHT, WORLD_HEIGHT);
+        }
+        generatedBorders[side] = border;
+        return border;
+    }
+
+    // True if the current mesh used generated terrain for the border toward the given neighbor chunk
+    public boolean hasGeneratedBorderToward(int neighborX, int neighborZ) {
+        int sides = generatedBorderSides;
+        for (int side = 0; side < SIDES.length; side++) {
+            if (chunkX + SIDES[side][0] == neighborX && chunkZ + SIDES[side][1] == neighborZ) {
+                return (sides & (1 << side)) != 0;
+            }
+        }
+        return false;
     }
 
     public boolean isVisible(Camera camera) {
         return camera.frustum.boundsInFrustum(boundingBox);
     }
 
+    // Height range of the uploaded mesh (the full world height until the first upload)
+    public float getMinY() {
+        return boundingBox.min.y;
+    }
+
+    public float getMaxY() {
+        return boundingBox.max.y;
+    }
+
     // THREAD-SAFE getInstances - retorna snapshot
     public Array<ModelInstance> getInstances() {
         synchronized (this) {
@@ -154,11 +484,54 @@ public class Chunk {
         }
     }
 
+    // The current instances of a section without copying, for ChunkRenderList; null when there is nothing to draw
+    public synchronized ModelInstance getOpaqueInstance(int section) {
+        return meshReady ? opaqueSections[section] : null;
+    }
+
+    public synchronized ModelInstance getTranslucentInstance(int section) {
+        return meshReady ? translucentSections[section] : null;
+    }
+
+    // Per-section face connectivity of the uploaded mesh, null before the first upload
+    public synchronized long[] getSectionConnectivity() {
+        return sectionConnectivity;
+    }
+
+    public int getMeshVersion() {
+        return meshVersion;
+    }
+
+    // True once a mesh is uploaded, even an empty one; distant terrain keeps covering the chunk until then
+    public synchronized boolean isMeshUploaded() {
+        return meshReady;
+    }
+
+    // Render thread only, since it frees the GL mesh
     public void dispose() {
+        Model oldModel;
+        ChunkMeshData unuploaded;
         synchronized (this) {
-            instances.clear();
+            disposed = true;
             renderInstances.clear();
+            translucentInstances.clear();
+            Arrays.fill(opaqueSections, null);
+            Arrays.fill(translucentSections, null);
+            sectionConnectivity = null;
+            meshVersion++;
+            unuploaded = pendingMesh;
+            pendingMesh = null;
             meshReady = false;
+            oldModel = model;
+            model = null;
+        }
+        if (oldModel != null) {
+            oldModel.dispose();
+        }
+        if (unuploaded != null) unuploaded.release();
+        // Hand pooled (off-heap) section storage back for the next chunk
+        for (ChunkSection section : sections) {
+            section.release();
         }
     }
 
@@ -166,18 +539,99 @@ public class Chunk {
         if (x < 0 || x >= CHUNK_SIZE || y < 0 || y >= WORLD_HEIGHT || z < 0 || z >= CHUNK_SIZE) {
             return BlockType.AIR;
         }
-        return blocks[x][y][z];
+        return getBlock(x, y, z);
     }
 
     public void setBlockAt(int x, int y, int z, BlockType blockType) {
         if (x < 0 || x >= CHUNK_SIZE || y < 0 || y >= WORLD_HEIGHT || z < 0 || z >= CHUNK_SIZE) {
             return;
         }
-        blocks[x][y][z] = blockType;
+        setBlock(x, y, z, blockType);
+        if (stage.isAtLeast(ChunkStage.LIGHT)) {
+            updateSkyHeight(x, z);
+        }
         needsRebuild = true;
+        dirty = true;
         // Mesh rebuild will be queued by World class
     }
 
+    // Restore block data saved by serialize() instead of generating; the blocks are final, so the
+    // chunk continues at the LIGHT stage
+    public void load(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int count = in.readUnsignedByte();
+        if (count != SECTION_COUNT) {
+            throw new IOException("Unexpected section count " + count + " for chunk (" + chunkX + ", " + chunkZ + ")");
+        }
+        ChunkSection[] loaded = new ChunkSection[SECTION_COUNT];
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            loaded[i] = ChunkSection.read(in);
+        }
+        System.arraycopy(loaded, 0, sections, 0, SECTION_COUNT);
+
+        generated = true;
+        dirty = false;
+        stage = ChunkStage.DECORATION;
+    }
+
+    // Snapshot of the block data for persistence; clears the dirty flag
+    public byte[] serialize() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            dirty = false;
+            out.writeByte(SECTION_COUNT);
+            for (ChunkSection section : sections) {
+                section.write(out);
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public boolean isGenerated() {
+        return generated;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    // Unchecked section lookups, coordinates must already be inside the chunk
+    private BlockType getBlock(int x, int y, int z) {
+        return sections[y / SECTION_SIZE].get(x, y % SECTION_SIZE, z);
+    }
+
+    private void setBlock(int x, int y, int z, BlockType blockType) {
+        sections[y / SECTION_SIZE].set(x, y % SECTION_SIZE, z, blockType);
+    }
+
+    // Generation writes voxel by voxel, so sections that ended up all one type are collapsed afterwards
+    protected void trimSections() {
+        for (ChunkSection section : sections) {
+            section.trim();
+        }
+    }
+
+    public ChunkSection getSection(int sectionY) {
+        return sections[sectionY];
+    }
+
+    // Bytes held by the block data of this chunk (sections + palettes + packed indices)
+    public long getBlockMemoryUsage() {
+        long total = 0;
+        for (ChunkSection section : sections) {
+            total += section.getMemoryUsage();
+        }
+        return total;
+    }
+
     public void update() {
         if (needsRebuild) {
             createMesh();
@@ -188,7 +642,7 @@ public class Chunk {
     // NOVO: Método para verificar se chunk está pronto para render
     public boolean isReady() {
         synchronized (this) {
-            return meshReady && renderInstances.size > 0;
+            return meshReady && (renderInstances.size > 0 || translucentInstances.size > 0);
         }
     }
 }
@@ -1,62 +1,105 @@
 package io.github.half;
 
-import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ObjectMap;
-import com.badlogic.gdx.utils.Queue;
+import io.github.half.mesh.BlockPalette;
+import io.github.half.persistence.EditJournal;
+import io.github.half.persistence.RegionStore;
+
+import java.io.IOException;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ChunkManager {
     private static final int CHUNK_SIZE = 16;
     private static final int WORLD_HEIGHT = 64;
     private static final int RENDER_DISTANCE = 8;
-    private static final int GENERATION_THREADS = 2;
+    // Chunks this close to the player are generated column-parallel (see Chunk.generate(boolean))
+    private static final int LATENCY_GENERATION_RADIUS = 1;
+    // Queued chunks are re-scored when the view turns by more than ~25 degrees
+    private static final float CAMERA_TURN_COS = 0.9f;
+    private static final int[][] SIDES = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
 
-    private ObjectMap<String, Chunk> loadedChunks;
-    private Queue<ChunkOperation> chunkOperationQueue;
+    private ChunkMap loadedChunks;
+    private ChunkScheduler scheduler;
     private Array<ChunkOperation> completedOperations;
     private Vector3 lastPlayerChunk;
     private WorldGenerator worldGenerator;
-    protected Model[] blockModels;
-    private ExecutorService threadPool;
-    private AtomicBoolean isRunning;
-
-    public ChunkManager(Model[] blockModels) {
-        this.blockModels = blockModels;
-        this.loadedChunks = new ObjectMap<>();
-        this.chunkOperationQueue = new Queue<>();
+    protected BlockPalette palette;
+    private ChunkPipeline pipeline;
+    private final MeshUploadQueue uploadQueue = new MeshUploadQueue();
+    // Read by the workers when they pick a generation mode
+    private volatile int playerChunkX, playerChunkZ;
+    private final Vector3 lastCameraDirection = new Vector3();
+    private RegionStore regionStore;
+    private EditJournal editJournal;
+    private ChunkResidency residency;
+
+    public ChunkManager(BlockPalette palette, long seed) {
+        this.palette = palette;
+        this.loadedChunks = new ChunkMap();
+        this.scheduler = new ChunkScheduler();
         this.completedOperations = new Array<>();
         this.lastPlayerChunk = new Vector3(-1, -1, -1);
-        this.worldGenerator = new WorldGenerator();
-        this.threadPool = Executors.newFixedThreadPool(GENERATION_THREADS);
-        this.isRunning = new AtomicBoolean(true);
+        this.worldGenerator = new WorldGenerator(seed);
+        this.regionStore = openRegionStore();
+        this.editJournal = openEditJournal();
+        this.residency = new ChunkResidency(regionStore, editJournal);
+        this.pipeline = new ChunkPipeline(this, scheduler);
+    }
+
+    // Saves are keyed by generator and seed so chunks from a different world are never mixed in
+    private String getSaveDirectory() {
+        return "saves/" + getGeneratorName() + "-" + worldGenerator.getSeed();
+    }
 
-        startWorkerThreads();
+    // Names the terrain generator in the save path. Called from the constructor, so overrides
+    // must not depend on subclass fields.
+    protected String getGeneratorName() {
+        return "world";
     }
 
-    private void startWorkerThreads() {
-        // Start worker threads for chunk generation
-        for (int i = 0; i < GENERATION_THREADS; i++) {
-            threadPool.submit(new ChunkWorker());
+    private RegionStore openRegionStore() {
+        try {
+            return new RegionStore(Gdx.files.local(getSaveDirectory() + "/region").file().toPath());
+        } catch (Exception e) {
+            System.err.println("Chunk persistence disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Edits are only journaled when there is a region store to eventually flush them into
+    private EditJournal openEditJournal() {
+        if (regionStore == null) return null;
+        try {
+            return new EditJournal(Gdx.files.local(getSaveDirectory() + "/edits.journal").file().toPath());
+        } catch (Exception e) {
+            System.err.println("Edit journal disabled: " + e.getMessage());
+            return null;
         }
     }
 
-    // ChunkManager.java - método update simplificado
     public void update(Vector3 playerPosition) {
+        update(playerPosition, null);
+    }
+
+    // With a camera, queued chunks in view are generated before those behind the player
+    public void update(Vector3 playerPosition, Camera camera) {
         int chunkX = (int) Math.floor(playerPosition.x / CHUNK_SIZE);
         int chunkZ = (int) Math.floor(playerPosition.z / CHUNK_SIZE);
 
         Vector3 currentChunk = new Vector3(chunkX, 0, chunkZ);
+        playerChunkX = chunkX;
+        playerChunkZ = chunkZ;
 
         // Process completed operations first
         synchronized (completedOperations) {
             for (ChunkOperation op : completedOperations) {
                 if (op.type == ChunkOperation.Type.GENERATE) {
-                    loadedChunks.put(getChunkKey(op.chunk.chunkX, op.chunk.chunkZ), op.chunk);
+                    loadedChunks.put(op.chunk);
+                    pipeline.retire(op.chunk);
+                    refreshBorders(op.chunk);
                 }
             }
             completedOperations.clear();
@@ -65,127 +108,248 @@ public class ChunkManager {
         // Only update chunks if player moved
         if (!currentChunk.equals(lastPlayerChunk)) {
             lastPlayerChunk.set(currentChunk);
+            if (camera != null) lastCameraDirection.set(camera.direction);
+
+            // Re-score what is still queued around the new position and drop what fell out of range
+            scheduler.setFocus(chunkX, chunkZ, camera, RENDER_DISTANCE);
+            pipeline.recheckWaiting();
 
             // Simple square loading (volta pro que funciona)
             for (int x = chunkX - RENDER_DISTANCE; x <= chunkX + RENDER_DISTANCE; x++) {
                 for (int z = chunkZ - RENDER_DISTANCE; z <= chunkZ + RENDER_DISTANCE; z++) {
-                    String chunkKey = getChunkKey(x, z);
-                    if (!loadedChunks.containsKey(chunkKey) && !isChunkQueued(x, z)) {
+                    if (!loadedChunks.contains(x, z) && !scheduler.contains(x, z)) {
                         queueChunkOperation(new ChunkOperation(
                             ChunkOperation.Type.GENERATE,
-                            new Chunk(x, z, worldGenerator, blockModels)));
+                            new Chunk(x, z, worldGenerator, palette)));
                     }
                 }
             }
 
-            // Unload distant chunks
-            Array<String> toRemove = new Array<>();
-            for (ObjectMap.Entry<String, Chunk> entry : loadedChunks.entries()) {
-                Chunk chunk = entry.value;
+            // Unload distant chunks. The snapshot is not affected by the removals below.
+            Array<Chunk> loaded = loadedChunks.snapshot();
+            for (int i = 0; i < loaded.size; i++) {
+                Chunk chunk = loaded.get(i);
                 float distance = Vector3.dst(chunk.chunkX, 0, chunk.chunkZ, chunkX, 0, chunkZ);
                 if (distance > RENDER_DISTANCE + 2) {
-                    toRemove.add(entry.key);
+                    loadedChunks.remove(chunk.chunkX, chunk.chunkZ);
+                    residency.demote(chunk);
+                    chunk.dispose();
                 }
             }
+        } else if (camera != null && camera.direction.dot(lastCameraDirection) < CAMERA_TURN_COS) {
+            // Turning around changes which queued chunks are in view
+            lastCameraDirection.set(camera.direction);
+            scheduler.setCamera(camera);
+        }
+    }
+    private void saveChunk(Chunk chunk) {
+        if (regionStore == null || !chunk.isGenerated() || !chunk.isDirty()) {
+            return;
+        }
+        if (editJournal == null) {
+            regionStore.save(chunk.chunkX, chunk.chunkZ, chunk.serialize());
+            return;
+        }
+        // Journal records up to this point are covered once the region write lands
+        long sequence = editJournal.currentSequence();
+        int x = chunk.chunkX, z = chunk.chunkZ;
+        regionStore.save(x, z, chunk.serialize(), () -> editJournal.markFlushed(x, z, sequence));
+    }
 
-            for (String key : toRemove) {
-                loadedChunks.remove(key).dispose();
-            }
+    // Append a block edit to the write-ahead journal; called for every World.setBlockAt
+    public void recordEdit(int x, int y, int z, BlockType blockType) {
+        if (editJournal != null) {
+            editJournal.append(x, y, z, blockType.ordinal());
         }
     }
-    private String getChunkKey(int chunkX, int chunkZ) {
-        return chunkX + "," + chunkZ;
+
+    // Re-apply edits from a session that ended before they reached the region files
+    void replayEdits(Chunk chunk) {
+        if (editJournal == null) return;
+        long[] records = editJournal.takeReplay(chunk.chunkX, chunk.chunkZ);
+        if (records == null) return;
+
+        BlockType[] types = BlockType.values();
+        for (long record : records) {
+            int ordinal = EditJournal.unpackOrdinal(record);
+            if (ordinal >= types.length) continue;
+            chunk.setBlockAt(EditJournal.unpackX(record) - chunk.chunkX * CHUNK_SIZE, EditJournal.unpackY(record),
+                EditJournal.unpackZ(record) - chunk.chunkZ * CHUNK_SIZE, types[ordinal]);
+        }
     }
 
-    private boolean isChunkQueued(int chunkX, int chunkZ) {
-        String key = getChunkKey(chunkX, chunkZ);
-        synchronized (chunkOperationQueue) {
-            for (ChunkOperation op : chunkOperationQueue) {
-                if (op.type == ChunkOperation.Type.GENERATE &&
-                    getChunkKey(op.chunk.chunkX, op.chunk.chunkZ).equals(key)) {
+    /**
+     * TERRAIN stage for ChunkPipeline. Revisited chunks come back from the warm tier or the region
+     * store, only unseen ones hit the generator. Returns true if the blocks were restored, in which case
+     * they are final and decoration is skipped.
+     */
+    boolean loadTerrain(Chunk chunk) {
+        try {
+            if (residency.promote(chunk)) {
+                return true;
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to restore chunk (" + chunk.chunkX + ", " + chunk.chunkZ + ") from memory: " + e.getMessage());
+        }
+        if (regionStore != null) {
+            try {
+                byte[] saved = regionStore.load(chunk.chunkX, chunk.chunkZ);
+                if (saved != null) {
+                    chunk.load(saved);
+                    replayEdits(chunk);
                     return true;
                 }
+            } catch (IOException e) {
+                System.err.println("Failed to load chunk (" + chunk.chunkX + ", " + chunk.chunkZ + "), regenerating: " + e.getMessage());
             }
         }
+        // Edits are replayed by the pipeline once decoration has run
+        chunk.generateTerrain(isNearPlayer(chunk));
         return false;
     }
 
+    // Handed over by ChunkPipeline after MESH; becomes a loaded chunk on the next update()
+    void chunkReady(Chunk chunk) {
+        synchronized (completedOperations) {
+            completedOperations.add(new ChunkOperation(ChunkOperation.Type.GENERATE, chunk));
+        }
+        meshBuilt(chunk);
+    }
+
+    // Any thread: the chunk has new mesh data waiting for the GPU
+    void meshBuilt(Chunk chunk) {
+        uploadQueue.add(chunk);
+    }
+
+    // Render thread: upload finished meshes within this frame's budget, most important first
+    public void uploadMeshes(Camera camera) {
+        GameSettings settings = GameSettings.getInstance();
+        uploadQueue.process(camera, settings.getMeshUploadMillis(), settings.getMeshUploadKilobytes() * 1024L);
+    }
+
+    public MeshUploadQueue getUploadQueue() {
+        return uploadQueue;
+    }
+
+    // Borders meshed against generated terrain are redone once the chunk on the other side is loaded
+    private void refreshBorders(Chunk chunk) {
+        boolean rebuildSelf = false;
+        for (int[] side : SIDES) {
+            Chunk neighbor = loadedChunks.get(chunk.chunkX + side[0], chunk.chunkZ + side[1]);
+            if (neighbor == null) continue;
+            if (neighbor.hasGeneratedBorderToward(chunk.chunkX, chunk.chunkZ)) {
+                queueChunkOperation(new ChunkOperation(ChunkOperation.Type.REBUILD_MESH, neighbor));
+            }
+            // The neighbor may have loaded while this chunk was being meshed
+            rebuildSelf |= chunk.hasGeneratedBorderToward(neighbor.chunkX, neighbor.chunkZ);
+        }
+        if (rebuildSelf) {
+            queueChunkOperation(new ChunkOperation(ChunkOperation.Type.REBUILD_MESH, chunk));
+        }
+    }
+
+    // Loaded chunk, or one still in the pipeline, for meshing across chunk borders
+    Chunk findChunk(int chunkX, int chunkZ) {
+        Chunk chunk = loadedChunks.get(chunkX, chunkZ);
+        return chunk != null ? chunk : pipeline.getChunk(chunkX, chunkZ);
+    }
+
+    // Checked when the chunk is dequeued, so a teleport also speeds up chunks queued before it
+    boolean isNearPlayer(Chunk chunk) {
+        return Math.abs(chunk.chunkX - playerChunkX) <= LATENCY_GENERATION_RADIUS
+            && Math.abs(chunk.chunkZ - playerChunkZ) <= LATENCY_GENERATION_RADIUS;
+    }
+
     public void queueChunkOperation(ChunkOperation operation) {
-        synchronized (chunkOperationQueue) {
-            chunkOperationQueue.addLast(operation);
-            chunkOperationQueue.notifyAll();
+        if (operation.type == ChunkOperation.Type.REBUILD_MESH) {
+            pipeline.rebuildMesh(operation.chunk);
+        } else {
+            scheduler.submit(operation);
         }
     }
 
-    public ObjectMap<String, Chunk> getLoadedChunks() {
-        // Return a defensive copy of loaded chunks to prevent concurrent modification
-        ObjectMap<String, Chunk> copy = new ObjectMap<>();
-        synchronized (loadedChunks) {
-            copy.putAll(loadedChunks);
+    // Per-stage queue depth and latency of the generation pipeline
+    public ChunkPipeline.Stats getPipelineStats() {
+        return pipeline.getStats();
+    }
+
+    // Operations waiting for a worker, and generations dropped because the player moved away
+    public int getQueuedOperationCount() {
+        return scheduler.getQueuedCount();
+    }
+
+    public long getCancelledOperationCount() {
+        return scheduler.getCancelledCount();
+    }
+
+    // Stable, read-only view of the loaded chunks; only rebuilt when chunks load or unload
+    public Array<Chunk> getLoadedChunks() {
+        return loadedChunks.snapshot();
+    }
+
+    // Lock-free and allocation-free, safe to call per voxel
+    public Chunk getChunk(int chunkX, int chunkZ) {
+        return loadedChunks.get(chunkX, chunkZ);
+    }
+
+    // Chunks are loaded this many chunks out from the player's chunk, in a square
+    public int getRenderDistance() {
+        return RENDER_DISTANCE;
+    }
+
+    // The generator new chunks are made with
+    public WorldGenerator getWorldGenerator() {
+        return worldGenerator;
+    }
+
+    public int getLoadedChunkCount() {
+        return loadedChunks.size();
+    }
+
+    // Byte budget for compressed chunks kept in memory after leaving the render distance
+    public void setWarmBudgetBytes(long bytes) {
+        residency.setWarmBudgetBytes(bytes);
+    }
+
+    // Per-tier chunk counts and byte totals; hot figures are block data only
+    public ChunkResidency.Stats getResidencyStats() {
+        ChunkResidency.Stats stats = new ChunkResidency.Stats();
+        Array<Chunk> loaded = loadedChunks.snapshot();
+        for (int i = 0; i < loaded.size; i++) {
+            stats.hotChunks++;
+            stats.hotBytes += loaded.get(i).getBlockMemoryUsage();
         }
-        return copy;
+        residency.fillStats(stats);
+        return stats;
     }
 
     public void queueRebuildMesh(int chunkX, int chunkZ) {
-        String key = getChunkKey(chunkX, chunkZ);
-        if (loadedChunks.containsKey(key)) {
+        Chunk chunk = loadedChunks.get(chunkX, chunkZ);
+        if (chunk != null) {
             queueChunkOperation(new ChunkOperation(
                     ChunkOperation.Type.REBUILD_MESH,
-                    loadedChunks.get(key)));
+                    chunk));
         }
     }
 
     public void dispose() {
-        isRunning.set(false);
-        threadPool.shutdown();
+        // Stop the stage threads, drop queued work and wait for running work, so nothing touches the store
+        // or journal after they close below. Chunks still in the pipeline were never loaded.
+        pipeline.dispose();
 
-        // Wake up any waiting threads
-        synchronized (chunkOperationQueue) {
-            chunkOperationQueue.notifyAll();
-        }
-
-        for (Chunk chunk : loadedChunks.values()) {
+        for (Chunk chunk : loadedChunks.snapshot()) {
+            saveChunk(chunk);
             chunk.dispose();
         }
         loadedChunks.clear();
-    }
-
-    private class ChunkWorker implements Runnable {
-        @Override
-        public void run() {
-            while (isRunning.get()) {
-                ChunkOperation operation = null;
-
-                // Get next operation from queue
-                synchronized (chunkOperationQueue) {
-                    if (chunkOperationQueue.size == 0) {
-                        try {
-                            chunkOperationQueue.wait();
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            return;
-                        }
-                    }
+        uploadQueue.clear();
+        residency.flush();
 
-                    if (chunkOperationQueue.size > 0) {
-                        operation = chunkOperationQueue.removeFirst();
-                    }
-                }
-
-                // Process operation
-                if (operation != null) {
-                    if (operation.type == ChunkOperation.Type.GENERATE) {
-                        operation.chunk.generate();
-                    } else if (operation.type == ChunkOperation.Type.REBUILD_MESH) {
-                        operation.chunk.createMesh();
-                    }
-
-                    // Add to completed operations
-                    synchronized (completedOperations) {
-                        completedOperations.add(operation);
-                    }
-                }
-            }
+        if (regionStore != null) {
+            regionStore.close();
+        }
+        if (editJournal != null) {
+            editJournal.close();
         }
     }
 
@@ -0,0 +1,177 @@
+package io.github.half;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Loaded-chunk registry keyed by packed (chunkX, chunkZ) longs. Open addressing with linear
+ * probing; the key is recovered from the stored chunk itself so a slot is a single reference.
+ *
+ * Reads are lock-free and allocation-free (one volatile table read plus slot reads), writes are
+ * serialized. Iteration goes through a snapshot array that is rebuilt only after a change.
+ */
+public class ChunkMap {
+    private static final Object TOMBSTONE = new Object();
+    private static final int MIN_CAPACITY = 64;
+
+    private volatile AtomicReferenceArray<Object> table;
+    private int size;
+    private int used; // live entries + tombstones
+    private volatile Array<Chunk> snapshot;
+
+    public ChunkMap() {
+        table = new AtomicReferenceArray<>(MIN_CAPACITY);
+    }
+
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int keyZ(long key) {
+        return (int) key;
+    }
+
+    private static int hash(int chunkX, int chunkZ) {
+        long h = key(chunkX, chunkZ) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    public Chunk get(int chunkX, int chunkZ) {
+        AtomicReferenceArray<Object> slots = table;
+        int mask = slots.length() - 1;
+        for (int i = hash(chunkX, chunkZ) & mask; ; i = (i + 1) & mask) {
+            Object value = slots.get(i);
+            if (value == null) {
+                return null;
+            }
+            if (value != TOMBSTONE) {
+                Chunk chunk = (Chunk) value;
+                if (chunk.chunkX == chunkX && chunk.chunkZ == chunkZ) {
+                    return chunk;
+                }
+            }
+        }
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return get(chunkX, chunkZ) != null;
+    }
+
+    // Returns the chunk previously registered at the same coordinates, if any
+    public synchronized Chunk put(Chunk chunk) {
+        if ((used + 1) * 2 > table.length()) {
+            resize(size + 1);
+        }
+        AtomicReferenceArray<Object> slots = table;
+        int mask = slots.length() - 1;
+        int firstFree = -1;
+        for (int i = hash(chunk.chunkX, chunk.chunkZ) & mask; ; i = (i + 1) & mask) {
+            Object value = slots.get(i);
+            if (value == null) {
+                if (firstFree < 0) {
+                    firstFree = i;
+                    used++;
+                }
+                break;
+            }
+            if (value == TOMBSTONE) {
+                if (firstFree < 0) firstFree = i;
+                continue;
+            }
+            Chunk existing = (Chunk) value;
+            if (existing.chunkX == chunk.chunkX && existing.chunkZ == chunk.chunkZ) {
+                slots.set(i, chunk);
+                snapshot = null;
+                return existing;
+            }
+        }
+        slots.set(firstFree, chunk);
+        size++;
+        snapshot = null;
+        return null;
+    }
+
+    public synchronized Chunk remove(int chunkX, int chunkZ) {
+        AtomicReferenceArray<Object> slots = table;
+        int mask = slots.length() - 1;
+        for (int i = hash(chunkX, chunkZ) & mask; ; i = (i + 1) & mask) {
+            Object value = slots.get(i);
+            if (value == null) {
+                return null;
+            }
+            if (value != TOMBSTONE) {
+                Chunk chunk = (Chunk) value;
+                if (chunk.chunkX == chunkX && chunk.chunkZ == chunkZ) {
+                    slots.set(i, TOMBSTONE);
+                    size--;
+                    snapshot = null;
+                    return chunk;
+                }
+            }
+        }
+    }
+
+    // Rehash into a fresh table (dropping tombstones) and publish it; readers on the old table stay valid
+    private void resize(int minSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < minSize * 4) {
+            capacity <<= 1;
+        }
+        AtomicReferenceArray<Object> old = table;
+        AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.length(); i++) {
+            Object value = old.get(i);
+            if (value == null || value == TOMBSTONE) continue;
+            Chunk chunk = (Chunk) value;
+            int j = hash(chunk.chunkX, chunk.chunkZ) & mask;
+            while (slots.get(j) != null) {
+                j = (j + 1) & mask;
+            }
+            slots.set(j, chunk);
+        }
+        used = size;
+        table = slots;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Stable view of the loaded chunks for iteration. The same array is returned until the map
+     * changes, so per-frame callers don't copy anything. Callers must not modify it.
+     */
+    public Array<Chunk> snapshot() {
+        Array<Chunk> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                Array<Chunk> values = new Array<>(false, Math.max(16, size), Chunk.class);
+                AtomicReferenceArray<Object> slots = table;
+                for (int i = 0; i < slots.length(); i++) {
+                    Object value = slots.get(i);
+                    if (value != null && value != TOMBSTONE) {
+                        values.add((Chunk) value);
+                    }
+                }
+                snapshot = values;
+            }
+            return snapshot;
+        }
+    }
+
+    public synchronized void clear() {
+        table = new AtomicReferenceArray<>(MIN_CAPACITY);
+        size = 0;
+        used = 0;
+        snapshot = null;
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.half;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.IndexBufferObject;
+import com.badlogic.gdx.graphics.glutils.IndexData;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.graphics.glutils.VertexBufferObject;
+import io.github.half.mesh.ChunkMeshData;
+import io.github.half.mesh.MeshBufferArena;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * GL mesh for one part of ChunkMeshData, in its packed vertex layout: the part's leased buffer is
+ * uploaded as it is and VoxelShader unpacks it. The mesh keeps the buffer as its client-side copy and
+ * returns it to MeshBufferArena when disposed. Every chunk mesh draws with the same index buffer of the quad
+ * pattern (ChunkMeshData.QUAD_INDICES repeated for 16k quads), so parts carry no indices of their own
+ * and disposing a mesh leaves the shared indices alone; disposeSharedIndices frees them at shutdown.
+ * Render thread only.
+ */
+class ChunkMesh extends Mesh {
+    // Shared by every chunk mesh; VoxelShader recognizes its meshes by this instance
+    static final VertexAttributes ATTRIBUTES = new VertexAttributes(
+        new VertexAttribute(VertexAttributes.Usage.Position, 3, GL20.GL_SHORT, false, ShaderProgram.POSITION_ATTRIBUTE),
+        new VertexAttribute(VertexAttributes.Usage.Generic, 2, GL20.GL_UNSIGNED_BYTE, false, "a_faceAndColor"));
+
+    private static IndexBufferObject sharedIndices;
+
+    private ByteBuffer vertices;
+
+    // Takes over the part's vertex buffer
+    ChunkMesh(ChunkMeshData.Part part) {
+        super(new PackedVertices(part.vertices), SharedQuadIndices.INSTANCE, false);
+        vertices = part.vertices;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (vertices != null) {
+            MeshBufferArena.getInstance().release(vertices);
+            vertices = null;
+        }
+    }
+
+    static void disposeSharedIndices() {
+        if (sharedIndices != null) {
+            sharedIndices.dispose();
+            sharedIndices = null;
+        }
+    }
+
+    private static IndexBufferObject getSharedIndices() {
+        if (sharedIndices == null) {
+            int quads = ChunkMeshData.MAX_QUADS_PER_PART;
+            short[] indices = new short[quads * ChunkMeshData.INDICES_PER_QUAD];
+            for (int q = 0; q < quads; q++) {
+                for (int k = 0; k < ChunkMeshData.INDICES_PER_QUAD; k++) {
+                    // Vertex numbers go up to 65535, which GL reads back as unsigned
+                    indices[q * ChunkMeshData.INDICES_PER_QUAD + k] =
+                        (short) (q * ChunkMeshData.VERTICES_PER_QUAD + ChunkMeshData.QUAD_INDICES[k]);
+                }
+            }
+            sharedIndices = new IndexBufferObject(true, indices.length);
+            sharedIndices.setIndices(indices, 0, indices.length);
+        }
+        return sharedIndices;
+    }
+
+    // Uses the packed bytes instead of floats, without freeing them; uploaded on the first bind
+    private static final class PackedVertices extends VertexBufferObject {
+        PackedVertices(ByteBuffer vertices) {
+            super(GL20.GL_STATIC_DRAW, vertices, false, ATTRIBUTES);
+            getBuffer(true);
+        }
+    }
+
+    // The shared buffer behind every mesh; only disposeSharedIndices frees it
+    private static final class SharedQuadIndices implements IndexData {
+        static final SharedQuadIndices INSTANCE = new SharedQuadIndices();
+
+        @Override
+        public int getNumIndices() {
+            return getSharedIndices().getNumIndices();
+        }
+
+        @Override
+        public int getNumMaxIndices() {
+            return getSharedIndices().getNumMaxIndices();
+        }
+
+        // The three writers below are only reachable through Mesh.setIndices / updateIndices, which
+        // nothing calls on a ChunkMesh (MeshModels builds them and never touches their indices).
+        // Writing here would rewrite the quad pattern under every chunk, so it is a hard error.
+        @Override
+        public void setIndices(short[] indices, int offset, int count) {
+            throw sharedIndicesWritten();
+        }
+
+        @Override
+        public void setIndices(ShortBuffer indices) {
+            throw sharedIndicesWritten();
+        }
+
+        @Override
+        public void updateIndices(int targetOffset, short[] indices, int offset, int count) {
+            throw sharedIndicesWritten();
+        }
+
+        private static IllegalStateException sharedIndicesWritten() {
+            return new IllegalStateException("Chunk meshes share one read-only index buffer");
+        }
+
+        @Override
+        @Deprecated
+        public ShortBuffer getBuffer() {
+            return getSharedIndices().getBuffer(false);
+        }
+
+        @Override
+        public ShortBuffer getBuffer(boolean forWriting) {
+            return getSharedIndices().getBuffer(forWriting);
+        }
+
+        @Override
+        public void bind() {
+            getSharedIndices().bind();
+        }
+
+        @Override
+        public void unbind() {
+            getSharedIndices().unbind();
+        }
+
+        @Override
+        public void invalidate() {
+            if (sharedIndices != null) sharedIndices.invalidate();
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+}
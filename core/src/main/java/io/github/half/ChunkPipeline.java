@@ -0,0 +1,326 @@
+package io.github.half;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves chunks through TERRAIN -> DECORATION -> LIGHT -> MESH, each stage on its own threads, so
+ * expensive WFC decoration no longer holds up meshing and each stage can be sized on its own.
+ *
+ * Backpressure: terrain threads only take a new chunk from the ChunkScheduler while fewer than
+ * MAX_IN_FLIGHT chunks are between terrain and the start of their MESH (or parked waiting for
+ * neighbors), so the decoration, light and mesh queues stay bounded and the scheduler keeps deciding
+ * what runs next. Mesh rebuilds of loaded chunks are queued at most once per chunk and run after the
+ * first meshes of new chunks.
+ *
+ * Neighbor gating: MESH waits until each side neighbor that is on its way (queued or in the pipeline)
+ * has final blocks, so chunk borders are meshed against real data instead of the generator. Neighbors
+ * that are neither loaded nor coming are not waited for.
+ */
+public class ChunkPipeline {
+    private static final int TERRAIN_THREADS = 2;
+    private static final int DECORATION_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int MAX_IN_FLIGHT = 8;
+    private static final int[][] SIDES = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private final ChunkManager manager;
+    private final ChunkScheduler scheduler;
+    // Taken from the scheduler and not yet retired into the loaded chunks
+    private final ChunkMap active = new ChunkMap();
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    private final ExecutorService terrainThreads;
+    private final ExecutorService decorationExecutor;
+    private final ExecutorService lightExecutor;
+    private final ExecutorService meshExecutor;
+    // Chunks past LIGHT whose neighbors are not ready yet; guarded by itself
+    private final Array<Chunk> waitingForNeighbors = new Array<>();
+    // Loaded chunks with a rebuild queued and not yet started, by ChunkMap.key
+    private final Set<Long> pendingRebuilds = ConcurrentHashMap.newKeySet();
+    private final StageCounters[] counters = new StageCounters[ChunkStage.values().length];
+    private volatile boolean running = true;
+
+    public ChunkPipeline(ChunkManager manager, ChunkScheduler scheduler) {
+        this.manager = manager;
+        this.scheduler = scheduler;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new StageCounters();
+        }
+        this.terrainThreads = Executors.newFixedThreadPool(TERRAIN_THREADS);
+        this.decorationExecutor = Executors.newFixedThreadPool(DECORATION_THREADS);
+        this.lightExecutor = Executors.newSingleThreadExecutor();
+        // One thread, since meshing keeps per-chunk border caches; first meshes go before rebuilds
+        this.meshExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>());
+        for (int i = 0; i < TERRAIN_THREADS; i++) {
+            terrainThreads.submit(new TerrainWorker());
+        }
+    }
+
+    // Chunk from the pipeline or null; meshing uses this to find neighbors that are not loaded yet
+    public Chunk getChunk(int chunkX, int chunkZ) {
+        return active.get(chunkX, chunkZ);
+    }
+
+    // Rebuild of an already loaded chunk, e.g. after a block edit; skips straight to MESH. A chunk whose
+    // rebuild is still queued is not queued again: that rebuild has not read the blocks yet.
+    public void rebuildMesh(Chunk chunk) {
+        long key = ChunkMap.key(chunk.chunkX, chunk.chunkZ);
+        if (!pendingRebuilds.add(key)) return;
+        dispatch(ChunkStage.MESH, chunk, meshExecutor, () -> {
+            pendingRebuilds.remove(key);
+            chunk.createMesh();
+        }, () -> manager.meshBuilt(chunk), StageTask.REBUILD);
+    }
+
+    // Called on the render thread once a finished chunk is in the loaded chunk map
+    public void retire(Chunk chunk) {
+        active.remove(chunk.chunkX, chunk.chunkZ);
+        scheduler.finish(chunk);
+    }
+
+    // After the scheduler dropped queued chunks, chunks that were waiting on them can go ahead
+    public void recheckWaiting() {
+        synchronized (waitingForNeighbors) {
+            for (int i = waitingForNeighbors.size - 1; i >= 0; i--) {
+                Chunk chunk = waitingForNeighbors.get(i);
+                if (neighborsReady(chunk)) {
+                    waitingForNeighbors.removeIndex(i);
+                    // Gave up its slot when it started waiting
+                    dispatchMesh(chunk, false);
+                }
+            }
+        }
+    }
+
+    private class TerrainWorker implements Runnable {
+        @Override
+        public void run() {
+            while (running) {
+                ChunkManager.ChunkOperation operation;
+                try {
+                    inFlight.acquire();
+                    operation = scheduler.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (operation == null) {
+                    inFlight.release();
+                    continue;
+                }
+
+                Chunk chunk = operation.chunk;
+                active.put(chunk);
+                chunk.setNeighborLookup(manager::findChunk);
+                boolean[] restored = new boolean[1];
+                runStage(ChunkStage.TERRAIN, chunk, System.nanoTime(), () -> restored[0] = manager.loadTerrain(chunk));
+                if (restored[0]) {
+                    afterDecoration(chunk);
+                } else {
+                    dispatch(ChunkStage.DECORATION, chunk, decorationExecutor, () -> {
+                        chunk.decorate(manager.isNearPlayer(chunk));
+                        manager.replayEdits(chunk);
+                    }, () -> afterDecoration(chunk));
+                }
+            }
+        }
+    }
+
+    private void afterDecoration(Chunk chunk) {
+        // This chunk's blocks are final now, which may be what a waiting neighbor needed
+        recheckWaiting();
+        dispatch(ChunkStage.LIGHT, chunk, lightExecutor, chunk::computeLight, () -> {
+            synchronized (waitingForNeighbors) {
+                if (neighborsReady(chunk)) {
+                    dispatchMesh(chunk, true);
+                } else {
+                    // Waiting must not hold a slot, or the neighbors it waits for could never start
+                    inFlight.release();
+                    waitingForNeighbors.add(chunk);
+                    // Pull the missing neighbors forward instead of waiting behind the rest of the queue
+                    for (int[] side : SIDES) {
+                        scheduler.boost(chunk.chunkX + side[0], chunk.chunkZ + side[1], chunk.chunkX, chunk.chunkZ);
+                    }
+                }
+            }
+        });
+    }
+
+    // holdsSlot: the chunk still has its in-flight slot, which it gives back once meshing starts
+    private void dispatchMesh(Chunk chunk, boolean holdsSlot) {
+        dispatch(ChunkStage.MESH, chunk, meshExecutor, () -> {
+            if (holdsSlot) inFlight.release();
+            chunk.createMesh();
+        }, () -> manager.chunkReady(chunk), StageTask.FIRST_MESH);
+    }
+
+    private boolean neighborsReady(Chunk chunk) {
+        for (int[] side : SIDES) {
+            int x = chunk.chunkX + side[0];
+            int z = chunk.chunkZ + side[1];
+            // Loaded or not coming at all
+            if (!scheduler.contains(x, z)) continue;
+            Chunk neighbor = active.get(x, z);
+            if (neighbor == null || !neighbor.getStage().isAtLeast(ChunkStage.DECORATION)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Queues work on a stage executor; then runs after it even if the work failed, so a chunk never gets stuck
+    private void dispatch(ChunkStage stage, Chunk chunk, ExecutorService executor, Runnable work, Runnable then) {
+        dispatch(stage, chunk, executor, work, then, StageTask.FIRST_MESH);
+    }
+
+    private void dispatch(ChunkStage stage, Chunk chunk, ExecutorService executor, Runnable work, Runnable then, int priority) {
+        if (!running) return;
+        long queuedAt = System.nanoTime();
+        StageCounters stageCounters = counters[stage.ordinal()];
+        stageCounters.queued.incrementAndGet();
+        executor.execute(new StageTask(priority, () -> {
+            stageCounters.queued.decrementAndGet();
+            runStage(stage, chunk, queuedAt, work);
+            if (then != null && running) {
+                then.run();
+            }
+        }));
+    }
+
+    private void runStage(ChunkStage stage, Chunk chunk, long queuedAt, Runnable work) {
+        StageCounters stageCounters = counters[stage.ordinal()];
+        stageCounters.running.incrementAndGet();
+        try {
+            work.run();
+        } catch (Exception e) {
+            System.err.println("Chunk (" + chunk.chunkX + ", " + chunk.chunkZ + ") failed in " + stage + ": " + e.getMessage());
+        } finally {
+            stageCounters.running.decrementAndGet();
+            stageCounters.record(System.nanoTime() - queuedAt);
+        }
+    }
+
+    // Per-stage queue depth and latency (from being queued for the stage until it finished)
+    public Stats getStats() {
+        Stats stats = new Stats();
+        for (ChunkStage stage : ChunkStage.values()) {
+            StageCounters stageCounters = counters[stage.ordinal()];
+            int i = stage.ordinal();
+            stats.queued[i] = stage == ChunkStage.TERRAIN ? scheduler.getQueuedCount() : stageCounters.queued.get();
+            stats.running[i] = stageCounters.running.get();
+            stats.completed[i] = stageCounters.completed.get();
+            stats.averageMillis[i] = stats.completed[i] == 0 ? 0 : stageCounters.totalNanos.get() / 1e6f / stats.completed[i];
+            stats.maxMillis[i] = stageCounters.maxNanos.get() / 1e6f;
+        }
+        synchronized (waitingForNeighbors) {
+            stats.waitingForNeighbors = waitingForNeighbors.size;
+        }
+        stats.pendingRebuilds = pendingRebuilds.size();
+        return stats;
+    }
+
+    public void dispose() {
+        running = false;
+        scheduler.close();
+        // Wake terrain threads blocked on a slot so they see running == false
+        inFlight.release(TERRAIN_THREADS);
+        terrainThreads.shutdown();
+        decorationExecutor.shutdownNow();
+        lightExecutor.shutdownNow();
+        meshExecutor.shutdownNow();
+        // Work already running may still read the region store or journal, which the caller closes next
+        awaitStage(terrainThreads, "terrain");
+        awaitStage(decorationExecutor, "decoration");
+        awaitStage(lightExecutor, "light");
+        awaitStage(meshExecutor, "mesh");
+        active.clear();
+        pendingRebuilds.clear();
+        synchronized (waitingForNeighbors) {
+            waitingForNeighbors.clear();
+        }
+    }
+
+    private static void awaitStage(ExecutorService executor, String name) {
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("Timed out waiting for the " + name + " stage to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Orders the mesh queue: first meshes of new chunks before rebuilds, otherwise first come first served.
+    // The other stages use plain FIFO queues and ignore the ordering.
+    private static final class StageTask implements Runnable, Comparable<StageTask> {
+        static final int FIRST_MESH = 0;
+        static final int REBUILD = 1;
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        final int priority;
+        final long sequence = SEQUENCE.getAndIncrement();
+        final Runnable body;
+
+        StageTask(int priority, Runnable body) {
+            this.priority = priority;
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            body.run();
+        }
+
+        @Override
+        public int compareTo(StageTask other) {
+            if (priority != other.priority) return Integer.compare(priority, other.priority);
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static class StageCounters {
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            completed.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    public static class Stats {
+        public final int[] queued = new int[ChunkStage.values().length];
+        public final int[] running = new int[ChunkStage.values().length];
+        public final long[] completed = new long[ChunkStage.values().length];
+        public final float[] averageMillis = new float[ChunkStage.values().length];
+        public final float[] maxMillis = new float[ChunkStage.values().length];
+        public int waitingForNeighbors;
+        public int pendingRebuilds;
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (ChunkStage stage : ChunkStage.values()) {
+                if (stage == ChunkStage.NONE) continue;
+                int i = stage.ordinal();
+                builder.append(String.format("%s queued %d running %d done %d avg %.1f ms max %.1f ms; ",
+                    stage, queued[i], running[i], completed[i], averageMillis[i], maxMillis[i]));
+            }
+            return builder.append("waiting for neighbors ").append(waitingForNeighbors)
+                .append(", rebuilds pending ").append(pendingRebuilds).toString();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.half;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Quadtree over chunk columns for frustum culling. Leaves cover LEAF_SIZE x LEAF_SIZE chunks and every
+ * node keeps the Y range actually occupied below it, so a subtree that is fully outside the frustum is
+ * skipped with one box test and one fully inside is taken without testing its chunks. The root grows
+ * toward new chunks and empty nodes are dropped, so loading and unloading only touch one path.
+ *
+ * Not thread-safe; World uses it on the render thread.
+ */
+public class ChunkQuadtree<T> {
+    private static final int CHUNK_SIZE = 16;
+    private static final int LEAF_SIZE = 4;
+    private static final int OUTSIDE = 0;
+    private static final int INTERSECTING = 1;
+    private static final int INSIDE = 2;
+
+    private Node root;
+    private int size;
+    private int boxTests;
+
+    private static final class Node {
+        final int minX; // Chunk coordinates of the corner, size chunks per side
+        final int minZ;
+        final int size;
+        final Node[] children; // Inner nodes: quadrant (x half) + 2 * (z half)
+        final Object[] items; // Leaves: x + z * LEAF_SIZE
+        final float[] itemMinY;
+        final float[] itemMaxY;
+        int count;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+
+        Node(int minX, int minZ, int size) {
+            this.minX = minX;
+            this.minZ = minZ;
+            this.size = size;
+            boolean leaf = size == LEAF_SIZE;
+            this.children = leaf ? null : new Node[4];
+            this.items = leaf ? new Object[LEAF_SIZE * LEAF_SIZE] : null;
+            this.itemMinY = leaf ? new float[LEAF_SIZE * LEAF_SIZE] : null;
+            this.itemMaxY = leaf ? new float[LEAF_SIZE * LEAF_SIZE] : null;
+        }
+
+        boolean contains(int x, int z) {
+            return x >= minX && x < minX + size && z >= minZ && z < minZ + size;
+        }
+
+        int childIndex(int x, int z) {
+            int half = size / 2;
+            return (x >= minX + half ? 1 : 0) + (z >= minZ + half ? 2 : 0);
+        }
+
+        void recomputeBounds() {
+            minY = Float.POSITIVE_INFINITY;
+            maxY = Float.NEGATIVE_INFINITY;
+            if (items != null) {
+                for (int i = 0; i < items.length; i++) {
+                    if (items[i] == null) continue;
+                    minY = Math.min(minY, itemMinY[i]);
+                    maxY = Math.max(maxY, itemMaxY[i]);
+                }
+            } else {
+                for (Node child : children) {
+                    if (child == null) continue;
+                    minY = Math.min(minY, child.minY);
+                    maxY = Math.max(maxY, child.maxY);
+                }
+            }
+        }
+    }
+
+    // Adds or replaces the item of a chunk column; minY/maxY is the occupied height range
+    public void put(int chunkX, int chunkZ, float minY, float maxY, T item) {
+        if (root == null) {
+            root = new Node(Math.floorDiv(chunkX, LEAF_SIZE) * LEAF_SIZE, Math.floorDiv(chunkZ, LEAF_SIZE) * LEAF_SIZE, LEAF_SIZE);
+        }
+        while (!root.contains(chunkX, chunkZ)) {
+            grow(chunkX, chunkZ);
+        }
+        if (put(root, chunkX, chunkZ, minY, maxY, item)) {
+            size++;
+        }
+    }
+
+    // Doubles the root toward (x, z); the old root becomes one of its quadrants
+    private void grow(int x, int z) {
+        Node old = root;
+        int minX = x < old.minX ? old.minX - old.size : old.minX;
+        int minZ = z < old.minZ ? old.minZ - old.size : old.minZ;
+        Node bigger = new Node(minX, minZ, old.size * 2);
+        bigger.children[bigger.childIndex(old.minX, old.minZ)] = old;
+        bigger.count = old.count;
+        bigger.recomputeBounds();
+        root = bigger;
+    }
+
+    private boolean put(Node node, int x, int z, float minY, float maxY, Object item) {
+        boolean added;
+        if (node.items != null) {
+            int i = (x - node.minX) + (z - node.minZ) * LEAF_SIZE;
+            added = node.items[i] == null;
+            node.items[i] = item;
+            node.itemMinY[i] = minY;
+            node.itemMaxY[i] = maxY;
+        } else {
+            int c = node.childIndex(x, z);
+            Node child = node.children[c];
+            if (child == null) {
+                int half = node.size / 2;
+                child = node.children[c] = new Node(node.minX + (c & 1) * half, node.minZ + (c >> 1) * half, half);
+            }
+            added = put(child, x, z, minY, maxY, item);
+        }
+        if (added) node.count++;
+        node.recomputeBounds();
+        return added;
+    }
+
+    public void remove(int chunkX, int chunkZ) {
+        if (root == null || !root.contains(chunkX, chunkZ)) return;
+        if (remove(root, chunkX, chunkZ)) {
+            size--;
+            if (size == 0) root = null;
+        }
+    }
+
+    private boolean remove(Node node, int x, int z) {
+        boolean removed;
+        if (node.items != null) {
+            int i = (x - node.minX) + (z - node.minZ) * LEAF_SIZE;
+            removed = node.items[i] != null;
+            node.items[i] = null;
+        } else {
+            int c = node.childIndex(x, z);
+            Node child = node.children[c];
+            removed = child != null && remove(child, x, z);
+            if (child != null && child.count == 0) {
+                node.children[c] = null;
+            }
+        }
+        if (removed) {
+            node.count--;
+            node.recomputeBounds();
+        }
+        return removed;
+    }
+
+    // Adds the items whose column boxes intersect the frustum to out
+    @SuppressWarnings("unchecked")
+    public void collect(Frustum frustum, Array<T> out) {
+        boxTests = 0;
+        if (root != null) {
+            collect(root, frustum, (Array<Object>) out, false);
+        }
+    }
+
+    private void collect(Node node, Frustum frustum, Array<Object> out, boolean inside) {
+        if (!inside) {
+            int result = test(frustum, node.minX, node.minZ, node.size, node.minY, node.maxY);
+            if (result == OUTSIDE) return;
+            inside = result == INSIDE;
+        }
+        if (node.items != null) {
+            for (int i = 0; i < node.items.length; i++) {
+                Object item = node.items[i];
+                if (item == null) continue;
+                if (inside || test(frustum, node.minX + i % LEAF_SIZE, node.minZ + i / LEAF_SIZE, 1,
+                    node.itemMinY[i], node.itemMaxY[i]) != OUTSIDE) {
+                    out.add(item);
+                }
+            }
+        } else {
+            for (Node child : node.children) {
+                if (child != null) collect(child, frustum, out, inside);
+            }
+        }
+    }
+
+    // Box of size x size chunk columns between minY and maxY against the frustum planes
+    private int test(Frustum frustum, int chunkX, int chunkZ, int size, float minY, float maxY) {
+        boxTests++;
+        float minX = chunkX * CHUNK_SIZE;
+        float minZ = chunkZ * CHUNK_SIZE;
+        float maxX = minX + size * CHUNK_SIZE;
+        float maxZ = minZ + size * CHUNK_SIZE;
+        int result = INSIDE;
+        for (Plane plane : frustum.planes) {
+            float nx = plane.normal.x;
+            float ny = plane.normal.y;
+            float nz = plane.normal.z;
+            // The corner furthest along the normal decides outside, the nearest one fully inside
+            float far = nx * (nx >= 0 ? maxX : minX) + ny * (ny >= 0 ? maxY : minY) + nz * (nz >= 0 ? maxZ : minZ) + plane.d;
+            if (far < 0) return OUTSIDE;
+            float near = nx * (nx >= 0 ? minX : maxX) + ny * (ny >= 0 ? minY : maxY) + nz * (nz >= 0 ? minZ : maxZ) + plane.d;
+            if (near < 0) result = INTERSECTING;
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Node and chunk boxes tested by the last collect
+    public int getLastBoxTests() {
+        return boxTests;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.half;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * The loaded chunks' render instances, kept between frames. When the set of loaded chunks changes
+ * (ChunkMap hands out a new snapshot then), only the chunks that came or went are added or removed;
+ * a single entry is refreshed when its chunk uploads a new mesh (Chunk.getMeshVersion). Chunks with
+ * something to draw sit in a ChunkQuadtree, so a frame is one hierarchical frustum walk into reused
+ * arrays and allocates nothing. With cave culling on, only the sections the CaveCuller reaches from
+ * the camera are submitted. A ChunkFilter can hold back chunks that something else draws in their
+ * place (LodTerrain while the chunks around a tile are not all ready).
+ *
+ * Render thread only.
+ */
+public class ChunkRenderList {
+    private Array<Chunk> source; // Snapshot the entries were synced with
+    private final LongMap<Entry> entries = new LongMap<>();
+    private final Array<Entry> entryList = new Array<>();
+    private final ChunkQuadtree<Entry> tree = new ChunkQuadtree<>();
+    private final CaveCuller caveCuller = new CaveCuller();
+    private final CaveCuller.ColumnLookup columnLookup = (chunkX, chunkZ) -> entries.get(ChunkMap.key(chunkX, chunkZ));
+    private int generation;
+
+    private final Array<Entry> visible = new Array<>();
+    private final Array<ModelInstance> visibleOpaque = new Array<>();
+    private final Array<ModelInstance> visibleTranslucent = new Array<>();
+    private int syncs;
+    private int refreshes;
+    private int visibleSections;
+
+    public interface ChunkFilter {
+        boolean isShown(int chunkX, int chunkZ);
+    }
+
+    private static final class Entry extends CaveCuller.Column {
+        final Chunk chunk;
+        final ModelInstance[] opaque = new ModelInstance[Chunk.SECTION_COUNT]; // Per section, null if none
+        final ModelInstance[] translucent = new ModelInstance[Chunk.SECTION_COUNT];
+        int version;
+        int generation; // Last sync that saw the chunk loaded
+        boolean inTree;
+
+        Entry(Chunk chunk) {
+            super(chunk.chunkX, chunk.chunkZ);
+            this.chunk = chunk;
+        }
+    }
+
+    public void update(Array<Chunk> loadedChunks, Camera camera) {
+        update(loadedChunks, camera, null);
+    }
+
+    // Brings the entries up to date with the loaded chunks, then collects what the camera can see
+    public void update(Array<Chunk> loadedChunks, Camera camera, ChunkFilter filter) {
+        if (loadedChunks != source) {
+            sync(loadedChunks);
+        }
+        for (int i = 0; i < entryList.size; i++) {
+            Entry entry = entryList.get(i);
+            if (entry.chunk.getMeshVersion() != entry.version) {
+                refresh(entry);
+            }
+        }
+
+        visible.clear();
+        tree.collect(camera.frustum, visible);
+        if (filter != null) {
+            for (int i = visible.size - 1; i >= 0; i--) {
+                Entry entry = visible.get(i);
+                if (!filter.isShown(entry.chunk.chunkX, entry.chunk.chunkZ)) visible.removeIndex(i);
+            }
+        }
+        boolean culled = GameSettings.getInstance().isCaveCullingEnabled()
+            && caveCuller.compute(columnLookup, Chunk.SECTION_COUNT, camera.position.x, camera.position.y, camera.position.z);
+        visibleOpaque.clear();
+        visibleTranslucent.clear();
+        visibleSections = 0;
+        for (int i = 0; i < visible.size; i++) {
+            Entry entry = visible.get(i);
+            int sections = culled ? entry.getVisibleMask(caveCuller) : -1;
+            for (int s = 0; s < Chunk.SECTION_COUNT; s++) {
+                if ((sections & (1 << s)) == 0) continue;
+                ModelInstance opaque = entry.opaque[s];
+                ModelInstance translucent = entry.translucent[s];
+                if (opaque != null) visibleOpaque.add(opaque);
+                if (translucent != null) visibleTranslucent.add(translucent);
+                if (opaque != null || translucent != null) visibleSections++;
+            }
+        }
+    }
+
+    // Adds chunks that are new in the snapshot and drops the ones that are gone
+    private void sync(Array<Chunk> loadedChunks) {
+        source = loadedChunks;
+        generation++;
+        for (int i = 0; i < loadedChunks.size; i++) {
+            Chunk chunk = loadedChunks.get(i);
+            if (chunk == null) continue;
+            long key = ChunkMap.key(chunk.chunkX, chunk.chunkZ);
+            Entry entry = entries.get(key);
+            if (entry != null && entry.chunk != chunk) {
+                remove(entry);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(chunk);
+                entry.version = chunk.getMeshVersion() - 1; // Picked up by the refresh pass
+                entries.put(key, entry);
+                entryList.add(entry);
+            }
+            entry.generation = generation;
+        }
+        for (int i = entryList.size - 1; i >= 0; i--) {
+            Entry entry = entryList.get(i);
+            if (entry.generation != generation) {
+                remove(entry);
+            }
+        }
+        syncs++;
+    }
+
+    private void remove(Entry entry) {
+        if (entry.inTree) {
+            tree.remove(entry.chunk.chunkX, entry.chunk.chunkZ);
+        }
+        entries.remove(ChunkMap.key(entry.chunk.chunkX, entry.chunk.chunkZ));
+        entryList.removeValue(entry, true);
+    }
+
+    private void refresh(Entry entry) {
+        Chunk chunk = entry.chunk;
+        // Version first: a mesh uploaded in between only causes one more refresh next frame
+        entry.version = chunk.getMeshVersion();
+        boolean drawable = false;
+        for (int s = 0; s < Chunk.SECTION_COUNT; s++) {
+            entry.opaque[s] = chunk.getOpaqueInstance(s);
+            entry.translucent[s] = chunk.getTranslucentInstance(s);
+            drawable |= entry.opaque[s] != null || entry.translucent[s] != null;
+        }
+        entry.setConnectivity(chunk.getSectionConnectivity());
+        if (drawable) {
+            // Also picks up the chunk's tightened height range
+            tree.put(chunk.chunkX, chunk.chunkZ, chunk.getMinY(), chunk.getMaxY(), entry);
+        } else if (entry.inTree) {
+            tree.remove(chunk.chunkX, chunk.chunkZ);
+        }
+        entry.inTree = drawable;
+        refreshes++;
+    }
+
+    public Array<ModelInstance> getVisibleOpaque() {
+        return visibleOpaque;
+    }
+
+    public Array<ModelInstance> getVisibleTranslucent() {
+        return visibleTranslucent;
+    }
+
+    // Times the entries were synced with a new snapshot / single entries were refreshed since the start
+    public int getSyncCount() {
+        return syncs;
+    }
+
+    public int getRefreshCount() {
+        return refreshes;
+    }
+
+    // Chunks that can be drawn, and the boxes the last frustum walk tested to find the visible ones
+    public int getDrawableCount() {
+        return tree.size();
+    }
+
+    public int getVisibleCount() {
+        return visible.size;
+    }
+
+    public int getLastBoxTests() {
+        return tree.getLastBoxTests();
+    }
+
+    // Sections submitted last frame, and sections the cave culler reached (in view or not)
+    public int getVisibleSectionCount() {
+        return visibleSections;
+    }
+
+    public int getReachedSectionCount() {
+        return caveCuller.getVisitedCount();
+    }
+
+    public void clear() {
+        source = null;
+        entries.clear();
+        entryList.clear();
+        tree.clear();
+        visible.clear();
+        visibleOpaque.clear();
+        visibleTranslucent.clear();
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.half;
+
+import io.github.half.persistence.Compression;
+import io.github.half.persistence.EditJournal;
+import io.github.half.persistence.RegionStore;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Middle tier between loaded chunks and the region files. Chunks that leave the render distance
+ * keep their block data here as a deflated payload (no mesh, no sections); the least recently used
+ * ones are evicted to the region store once the warm tier exceeds its byte budget. Eviction hands the
+ * deflated payload to the region store's I/O thread as is, so the caller never inflates or writes.
+ *
+ * hot  = loaded in ChunkManager, blocks + mesh
+ * warm = compressed block data in memory
+ * cold = only on disk (or not generated yet)
+ */
+public class ChunkResidency {
+    public static final long DEFAULT_WARM_BUDGET_BYTES = 16L * 1024 * 1024;
+
+    private final RegionStore regionStore;
+    private final EditJournal editJournal;
+    private final LinkedHashMap<Long, WarmChunk> warm = new LinkedHashMap<>(256, 0.75f, true);
+    private long warmBytes;
+    private long warmBudgetBytes = DEFAULT_WARM_BUDGET_BYTES;
+
+    // Where chunk requests were served from, since startup
+    private long warmHits;
+    private long coldEvictions;
+
+    private static final class WarmChunk {
+        final int chunkX, chunkZ;
+        final byte[] compressed;
+        final boolean dirty;
+        final long journalSequence;
+
+        WarmChunk(int chunkX, int chunkZ, byte[] compressed, boolean dirty, long journalSequence) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.compressed = compressed;
+            this.dirty = dirty;
+            this.journalSequence = journalSequence;
+        }
+    }
+
+    public static class Stats {
+        public int hotChunks;
+        public long hotBytes;
+        public int warmChunks;
+        public long warmBytes;
+        public long warmBudgetBytes;
+        public long warmHits;
+        // Chunks in the region files, on-disk bytes; chunks loaded from there count here too
+        public int coldChunks;
+        public long coldBytes;
+        public long coldEvictions;
+
+        @Override
+        public String toString() {
+            return "hot " + hotChunks + " (" + hotBytes / 1024 + " KB), warm " + warmChunks + " (" + warmBytes / 1024
+                + " / " + warmBudgetBytes / 1024 + " KB), cold " + coldChunks + " (" + coldBytes / 1024
+                + " KB), warm hits " + warmHits + ", evicted " + coldEvictions;
+        }
+    }
+
+    public ChunkResidency(RegionStore regionStore, EditJournal editJournal) {
+        this.regionStore = regionStore;
+        this.editJournal = editJournal;
+    }
+
+    // Hot -> warm: keep the block data compressed, drop everything else
+    public void demote(Chunk chunk) {
+        if (!chunk.isGenerated()) return;
+
+        boolean dirty = chunk.isDirty();
+        long sequence = editJournal != null ? editJournal.currentSequence() : 0;
+        byte[] compressed = Compression.deflate(chunk.serialize());
+
+        synchronized (this) {
+            WarmChunk previous = warm.put(ChunkMap.key(chunk.chunkX, chunk.chunkZ),
+                new WarmChunk(chunk.chunkX, chunk.chunkZ, compressed, dirty, sequence));
+            if (previous != null) {
+                warmBytes -= previous.compressed.length;
+            }
+            warmBytes += compressed.length;
+            evictOverBudget();
+        }
+    }
+
+    // Warm -> hot: restores the chunk's blocks and mesh; false if the chunk is not in the warm tier
+    public boolean promote(Chunk chunk) throws IOException {
+        WarmChunk entry;
+        synchronized (this) {
+            entry = warm.remove(ChunkMap.key(chunk.chunkX, chunk.chunkZ));
+            if (entry == null) return false;
+            warmBytes -= entry.compressed.length;
+            warmHits++;
+        }
+        chunk.load(Compression.inflate(entry.compressed));
+        if (entry.dirty) {
+            // Still not in the region files; it has to be saved again when it leaves
+            chunk.markDirty();
+        }
+        return true;
+    }
+
+    public synchronized void setWarmBudgetBytes(long budget) {
+        this.warmBudgetBytes = Math.max(0, budget);
+        evictOverBudget();
+    }
+
+    public synchronized long getWarmBudgetBytes() {
+        return warmBudgetBytes;
+    }
+
+    // Warm -> cold, least recently used first
+    private void evictOverBudget() {
+        Iterator<WarmChunk> it = warm.values().iterator();
+        while (warmBytes > warmBudgetBytes && it.hasNext()) {
+            WarmChunk entry = it.next();
+            it.remove();
+            warmBytes -= entry.compressed.length;
+            coldEvictions++;
+            writeCold(entry);
+        }
+    }
+
+    // Only queues the write: the region store writes the warm payload without re-compressing it
+    private void writeCold(WarmChunk entry) {
+        if (!entry.dirty || regionStore == null) return;
+        Runnable onWritten = editJournal == null ? null
+            : () -> editJournal.markFlushed(entry.chunkX, entry.chunkZ, entry.journalSequence);
+        regionStore.saveCompressed(entry.chunkX, entry.chunkZ, entry.compressed, onWritten);
+    }
+
+    // Push every warm chunk to the region store, used on shutdown
+    public synchronized void flush() {
+        for (WarmChunk entry : warm.values()) {
+            writeCold(entry);
+        }
+        warm.clear();
+        warmBytes = 0;
+    }
+
+    public synchronized void fillStats(Stats stats) {
+        stats.warmChunks = warm.size();
+        stats.warmBytes = warmBytes;
+        stats.warmBudgetBytes = warmBudgetBytes;
+        stats.warmHits = warmHits;
+        stats.coldEvictions = coldEvictions;
+        if (regionStore != null) {
+            stats.coldChunks = regionStore.getStoredChunkCount();
+            stats.coldBytes = regionStore.getStoredBytes();
+        }
+    }
+}
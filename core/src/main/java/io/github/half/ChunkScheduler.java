@@ -0,0 +1,147 @@
+package io.github.half;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.utils.BinaryHeap;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Queue of chunks waiting for the TERRAIN stage of ChunkPipeline. Chunks are ordered by distance to
+ * the player, with chunks outside the camera frustum pushed back. Chunks are tracked by key from
+ * submit until finish, so "is this chunk already on its way" is a single lookup, and moving the
+ * player re-scores or cancels queued work instead of letting it run to completion.
+ */
+public class ChunkScheduler {
+    private static final int CHUNK_SIZE = 16;
+    private static final int WORLD_HEIGHT = 64;
+    // An out-of-view chunk waits behind in-view chunks up to 4 chunks further away
+    private static final float OUT_OF_VIEW_PENALTY = 16f;
+    // The ring the player stands in is needed regardless of where the camera looks
+    private static final int ALWAYS_VISIBLE_DISTANCE_SQ = 2;
+
+    private final BinaryHeap<Entry> heap = new BinaryHeap<>();
+    // Queued and in-progress GENERATE operations, by ChunkMap.key
+    private final LongMap<Entry> pending = new LongMap<>();
+
+    private int focusX, focusZ;
+    private Camera camera;
+    private boolean closed;
+    private long cancelledCount;
+
+    private static class Entry extends BinaryHeap.Node {
+        final ChunkManager.ChunkOperation operation;
+        boolean inProgress;
+
+        Entry(ChunkManager.ChunkOperation operation, float priority) {
+            super(priority);
+            this.operation = operation;
+        }
+    }
+
+    public synchronized boolean contains(int chunkX, int chunkZ) {
+        return pending.containsKey(ChunkMap.key(chunkX, chunkZ));
+    }
+
+    // Only GENERATE operations are queued here
+    public synchronized void submit(ChunkManager.ChunkOperation operation) {
+        if (closed) return;
+        long key = ChunkMap.key(operation.chunk.chunkX, operation.chunk.chunkZ);
+        if (pending.containsKey(key)) return;
+        Entry entry = new Entry(operation, 0);
+        pending.put(key, entry);
+        heap.add(entry, priorityOf(operation.chunk.chunkX, operation.chunk.chunkZ));
+        notifyAll();
+    }
+
+    // True while the chunk is waiting here, as opposed to being taken by a worker
+    public synchronized boolean isQueued(int chunkX, int chunkZ) {
+        Entry entry = pending.get(ChunkMap.key(chunkX, chunkZ));
+        return entry != null && !entry.inProgress;
+    }
+
+    // Moves a queued chunk up to the priority of another chunk that is waiting on it
+    public synchronized void boost(int chunkX, int chunkZ, int forChunkX, int forChunkZ) {
+        Entry entry = pending.get(ChunkMap.key(chunkX, chunkZ));
+        if (entry == null || entry.inProgress) return;
+        float priority = priorityOf(forChunkX, forChunkZ);
+        if (priority < entry.getValue()) {
+            heap.setValue(entry, priority);
+        }
+    }
+
+    // Blocks until there is work; returns null once the scheduler is closed
+    public synchronized ChunkManager.ChunkOperation take() throws InterruptedException {
+        while (!closed && heap.size == 0) {
+            wait();
+        }
+        if (closed) return null;
+        Entry entry = heap.pop();
+        entry.inProgress = true;
+        return entry.operation;
+    }
+
+    // Called once the chunk has been handed over to the loaded chunks
+    public synchronized void finish(Chunk chunk) {
+        pending.remove(ChunkMap.key(chunk.chunkX, chunk.chunkZ));
+    }
+
+    /**
+     * Moves the focus to the player's chunk and camera. Queued chunks more than radius chunks away
+     * are dropped; the rest are re-scored in place. Work a worker has already started is left alone.
+     */
+    public synchronized void setFocus(int chunkX, int chunkZ, Camera camera, int radius) {
+        this.focusX = chunkX;
+        this.focusZ = chunkZ;
+        this.camera = camera;
+
+        LongMap.Values<Entry> entries = pending.values();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.inProgress) continue;
+            Chunk chunk = entry.operation.chunk;
+            if (Math.abs(chunk.chunkX - chunkX) > radius || Math.abs(chunk.chunkZ - chunkZ) > radius) {
+                heap.remove(entry);
+                entries.remove();
+                cancelledCount++;
+            } else {
+                heap.setValue(entry, priorityOf(chunk.chunkX, chunk.chunkZ));
+            }
+        }
+    }
+
+    // Re-scores queued chunks for a new view direction without moving the focus
+    public synchronized void setCamera(Camera camera) {
+        setFocus(focusX, focusZ, camera, Integer.MAX_VALUE);
+    }
+
+    public synchronized void close() {
+        closed = true;
+        heap.clear();
+        pending.clear();
+        notifyAll();
+    }
+
+    public synchronized int getQueuedCount() {
+        return heap.size;
+    }
+
+    public synchronized long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    // Lower runs first
+    private float priorityOf(int chunkX, int chunkZ) {
+        int dx = chunkX - focusX;
+        int dz = chunkZ - focusZ;
+        float priority = dx * dx + dz * dz;
+        if (priority > ALWAYS_VISIBLE_DISTANCE_SQ && camera != null && !isInFrustum(chunkX, chunkZ)) {
+            priority += OUT_OF_VIEW_PENALTY;
+        }
+        return priority;
+    }
+
+    private boolean isInFrustum(int chunkX, int chunkZ) {
+        float half = CHUNK_SIZE / 2f;
+        return camera.frustum.boundsInFrustum(chunkX * CHUNK_SIZE + half, WORLD_HEIGHT / 2f, chunkZ * CHUNK_SIZE + half,
+            half, WORLD_HEIGHT / 2f, half);
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.half;
+
+// How far a chunk has come through ChunkPipeline; each value means that stage has finished
+public enum ChunkStage {
+    NONE,
+    TERRAIN,    // base blocks from WorldGenerator.generateColumn
+    DECORATION, // WorldGenerator.decorateColumn applied, block data is final
+    LIGHT,      // sky heightmap computed
+    MESH;       // render instances built
+
+    public boolean isAtLeast(ChunkStage other) {
+        return ordinal() >= other.ordinal();
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.half;
+
+import java.util.Arrays;
+
+/**
+ * Frame times of the last few seconds for spotting hitches: averages hide the one 40 ms frame in a
+ * hundred that a mesh upload burst causes, the 99th percentile does not.
+ */
+public class FrameTimeStats {
+    private final float[] frames;
+    private final float[] sorted;
+    private int next;
+    private int count;
+
+    public FrameTimeStats(int capacity) {
+        this.frames = new float[capacity];
+        this.sorted = new float[capacity];
+    }
+
+    public void record(float deltaSeconds) {
+        frames[next] = deltaSeconds * 1000f;
+        next = (next + 1) % frames.length;
+        if (count < frames.length) count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Frame time in milliseconds at the given percentile (0-100) of the recorded frames
+    public float getPercentile(float percentile) {
+        if (count == 0) return 0;
+        System.arraycopy(frames, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int index = (int) Math.ceil(percentile / 100f * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms over %d frames",
+            getPercentile(50), getPercentile(95), getPercentile(99), getPercentile(100), count);
+    }
+}
@@ -7,11 +7,19 @@ public class GameSettings {
     // Default settings
     private static final float DEFAULT_MOUSE_SENSITIVITY = 0.3f;
     private static final boolean DEFAULT_PLAYER_GRAVITY = true;
+    private static final float DEFAULT_MESH_UPLOAD_MILLIS = 4f;
+    private static final int DEFAULT_MESH_UPLOAD_KILOBYTES = 1024;
+    private static final boolean DEFAULT_CAVE_CULLING = true;
+    private static final boolean DEFAULT_DISTANT_TERRAIN = true;
 
     // Preferences keys
     private static final String PREF_NAME = "VoxelGameSettings";
     private static final String KEY_MOUSE_SENSITIVITY = "mouseSensitivity";
     private static final String KEY_PLAYER_GRAVITY = "playerGravity";
+    private static final String KEY_MESH_UPLOAD_MILLIS = "meshUploadMillis";
+    private static final String KEY_MESH_UPLOAD_KILOBYTES = "meshUploadKilobytes";
+    private static final String KEY_CAVE_CULLING = "caveCulling";
+    private static final String KEY_DISTANT_TERRAIN = "distantTerrain";
 
     // Singleton instance
     private static GameSettings instance;
@@ -20,6 +28,13 @@ public class GameSettings {
     private float mouseSensitivity;
     private boolean playerGravityEnabled;
     private boolean wfcVerboseLoggingEnabled;
+    // Per-frame budget for turning finished chunk meshes into GL buffers
+    private float meshUploadMillis;
+    private int meshUploadKilobytes;
+    // Skip chunk sections the camera cannot see into, e.g. caves under the ground (see CaveCuller)
+    private boolean caveCullingEnabled;
+    // Draw coarse terrain past the loaded chunks (see LodTerrain)
+    private boolean distantTerrainEnabled;
 
     // Preferences object
     private Preferences prefs;
@@ -39,11 +54,19 @@ public class GameSettings {
     private void loadSettings() {
         mouseSensitivity = prefs.getFloat(KEY_MOUSE_SENSITIVITY, DEFAULT_MOUSE_SENSITIVITY);
         playerGravityEnabled = prefs.getBoolean(KEY_PLAYER_GRAVITY, DEFAULT_PLAYER_GRAVITY);
+        meshUploadMillis = prefs.getFloat(KEY_MESH_UPLOAD_MILLIS, DEFAULT_MESH_UPLOAD_MILLIS);
+        meshUploadKilobytes = prefs.getInteger(KEY_MESH_UPLOAD_KILOBYTES, DEFAULT_MESH_UPLOAD_KILOBYTES);
+        caveCullingEnabled = prefs.getBoolean(KEY_CAVE_CULLING, DEFAULT_CAVE_CULLING);
+        distantTerrainEnabled = prefs.getBoolean(KEY_DISTANT_TERRAIN, DEFAULT_DISTANT_TERRAIN);
     }
 
     public void saveSettings() {
         prefs.putFloat(KEY_MOUSE_SENSITIVITY, mouseSensitivity);
         prefs.putBoolean(KEY_PLAYER_GRAVITY, playerGravityEnabled);
+        prefs.putFloat(KEY_MESH_UPLOAD_MILLIS, meshUploadMillis);
+        prefs.putInteger(KEY_MESH_UPLOAD_KILOBYTES, meshUploadKilobytes);
+        prefs.putBoolean(KEY_CAVE_CULLING, caveCullingEnabled);
+        prefs.putBoolean(KEY_DISTANT_TERRAIN, distantTerrainEnabled);
         prefs.flush();
     }
 
@@ -67,6 +90,38 @@ public class GameSettings {
         playerGravityEnabled = !playerGravityEnabled;
     }
 
+    public float getMeshUploadMillis() {
+        return meshUploadMillis;
+    }
+
+    public void setMeshUploadMillis(float meshUploadMillis) {
+        this.meshUploadMillis = meshUploadMillis;
+    }
+
+    public int getMeshUploadKilobytes() {
+        return meshUploadKilobytes;
+    }
+
+    public void setMeshUploadKilobytes(int meshUploadKilobytes) {
+        this.meshUploadKilobytes = meshUploadKilobytes;
+    }
+
+    public boolean isCaveCullingEnabled() {
+        return caveCullingEnabled;
+    }
+
+    public void setCaveCullingEnabled(boolean enabled) {
+        this.caveCullingEnabled = enabled;
+    }
+
+    public boolean isDistantTerrainEnabled() {
+        return distantTerrainEnabled;
+    }
+
+    public void setDistantTerrainEnabled(boolean enabled) {
+        this.distantTerrainEnabled = enabled;
+    }
+
     public boolean isWfcVerboseLoggingEnabled() {
         return wfcVerboseLoggingEnabled;
     }
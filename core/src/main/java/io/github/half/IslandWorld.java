@@ -1,29 +1,34 @@
 package io.github.half;
-import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.math.Vector3;
+import io.github.half.mesh.BlockPalette;
 import io.github.half.wfc.*;
 public class IslandWorld extends World {
-    private WFCChunkManager wfcChunkManager;
-
-    public IslandWorld(Model[] blockModels) {
-        super(blockModels);
-        // Replace the standard chunk manager with WFC version
-        this.chunkManager = new WFCChunkManager(blockModels);
-        this.wfcChunkManager = (WFCChunkManager) this.chunkManager;
-
+    public IslandWorld(BlockPalette palette, long seed) {
+        super(palette, seed);
         System.out.println("Island World initialized with WFC generation");
         System.out.println("Ocean coverage: " + (IslandConfig.OCEAN_COVERAGE * 100) + "%");
         System.out.println("Island density: " + IslandConfig.ISLAND_DENSITY);
     }
 
+    // Use the WFC chunk manager instead of the standard one
+    @Override
+    protected ChunkManager createChunkManager(BlockPalette palette, long seed) {
+        return new WFCChunkManager(palette, seed);
+    }
+
     @Override
-    public void update(Vector3 playerPosition) {
-        super.update(playerPosition);
+    public void update(Vector3 playerPosition, Camera camera) {
+        super.update(playerPosition, camera);
 
         // Optional: Debug info
         if (Math.random() < 0.001) { // Occasionally print stats
             System.out.println("Loaded chunks: " + getLoadedChunksCount());
             System.out.println("Player position: " + playerPosition);
+            System.out.println("Chunk residency: " + chunkManager.getResidencyStats());
+            System.out.println("Queued chunk operations: " + chunkManager.getQueuedOperationCount()
+                + " (cancelled " + chunkManager.getCancelledOperationCount() + ")");
+            System.out.println("Chunk pipeline: " + chunkManager.getPipelineStats());
         }
     }
 }
@@ -0,0 +1,396 @@
+package io.github.half;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import io.github.half.mesh.BlockPalette;
+import io.github.half.mesh.ChunkMeshData;
+import io.github.half.mesh.LodMesher;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Terrain past the loaded chunks, drawn from the generator's 2D surface (WorldGenerator.sampleSurface)
+ * instead of blocks. Three rings of square tiles around the player, each twice as coarse as the one
+ * inside it: level 1 tiles are 2x2 chunks sampled every 2 blocks, level 2 4x4 chunks every 4 blocks,
+ * level 3 8x8 chunks every 8 blocks, out to the full detail radius << LEVELS chunks. Every tile is
+ * TILE_CELLS x TILE_CELLS cells whatever its level (see LodMesher).
+ *
+ * The area of every level, full detail included, is a square snapped to the tile grid of the level
+ * outside it, so a tile is always either inside the finer area or outside it and the levels never
+ * overlap. A tile inside the finer area stays drawn until whatever replaces it (finer tiles, or the
+ * chunks for level 1) is ready, so walking toward distant terrain swaps it for full detail without
+ * holes; the chunks under a tile that is still drawn are hidden through isShown.
+ *
+ * Tiles are built on a background thread and uploaded a few per frame. Render thread only otherwise.
+ */
+public class LodTerrain implements ChunkRenderList.ChunkFilter {
+    public static final int LEVELS = 3;
+    private static final int CHUNK_SIZE = 16;
+    private static final int TILE_CELLS = 16;
+    private static final int UPLOADS_PER_FRAME = 4;
+
+    private final WorldGenerator generator;
+    private final BlockPalette palette;
+    private final ChunkManager chunks;
+    private final int fullDetailRadius;
+    // Index 0 is the full detail area and has no tiles
+    private final Level[] levels = new Level[LEVELS + 1];
+    private final ExecutorService builder;
+    private final ConcurrentLinkedQueue<Tile> built = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedBuilds = new AtomicInteger();
+    private int centerX = Integer.MIN_VALUE;
+    private int centerZ = Integer.MIN_VALUE;
+
+    private final Array<ModelInstance> visibleOpaque = new Array<>();
+    private final Array<ModelInstance> visibleTranslucent = new Array<>();
+    // Drawn tiles that reach into the full detail area; the chunks under them are not shown
+    private final Array<Tile> covering = new Array<>();
+    private final Array<Tile> created = new Array<>();
+    private int drawnTiles;
+    private int stamp;
+
+    private static final class Level {
+        final LongMap<Tile> tiles = new LongMap<>();
+        final Array<Tile> tileList = new Array<>();
+        // Area in chunks, inclusive
+        int minX, minZ, maxX, maxZ;
+
+        boolean contains(int chunkX, int chunkZ, int size) {
+            return chunkX >= minX && chunkZ >= minZ && chunkX + size - 1 <= maxX && chunkZ + size - 1 <= maxZ;
+        }
+    }
+
+    private static final class Tile {
+        final int level;
+        final int tileX, tileZ;
+        final int chunkX, chunkZ; // First chunk
+        final int size; // In chunks
+        final BoundingBox bounds = new BoundingBox();
+        volatile boolean wanted = true;
+        ChunkMeshData data; // Handed over through the built queue
+        Model model;
+        ModelInstance opaque;
+        ModelInstance translucent;
+        boolean ready;
+        int vertexCount;
+        long bytes;
+        int stamp;
+
+        Tile(int level, int tileX, int tileZ) {
+            this.level = level;
+            this.tileX = tileX;
+            this.tileZ = tileZ;
+            this.size = 1 << level;
+            this.chunkX = tileX * size;
+            this.chunkZ = tileZ * size;
+        }
+
+        boolean contains(int x, int z) {
+            return x >= chunkX && z >= chunkZ && x < chunkX + size && z < chunkZ + size;
+        }
+    }
+
+    public LodTerrain(WorldGenerator generator, BlockPalette palette, ChunkManager chunks) {
+        this.generator = generator;
+        this.palette = palette;
+        this.chunks = chunks;
+        this.fullDetailRadius = chunks.getRenderDistance();
+        for (int i = 0; i <= LEVELS; i++) {
+            levels[i] = new Level();
+        }
+        this.builder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lod-builder");
+            thread.setDaemon(true);
+            // Loaded chunks come first
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    // Moves the rings when the player enters another chunk
+    public void setCenter(int chunkX, int chunkZ) {
+        if (chunkX == centerX && chunkZ == centerZ) return;
+        centerX = chunkX;
+        centerZ = chunkZ;
+        for (int level = 0; level <= LEVELS; level++) {
+            int radius = fullDetailRadius << level;
+            // Snapped to the next level's tiles; the outermost level only to its own
+            int align = 1 << Math.min(level + 1, LEVELS);
+            Level area = levels[level];
+            area.minX = ceilDiv(chunkX - radius, align) * align;
+            area.minZ = ceilDiv(chunkZ - radius, align) * align;
+            area.maxX = Math.floorDiv(chunkX + radius + 1, align) * align - 1;
+            area.maxZ = Math.floorDiv(chunkZ + radius + 1, align) * align - 1;
+        }
+
+        stamp++;
+        created.clear();
+        for (int level = 1; level <= LEVELS; level++) {
+            Level area = levels[level];
+            Level inner = levels[level - 1];
+            int size = 1 << level;
+            for (int tx = Math.floorDiv(area.minX, size); tx <= Math.floorDiv(area.maxX, size); tx++) {
+                for (int tz = Math.floorDiv(area.minZ, size); tz <= Math.floorDiv(area.maxZ, size); tz++) {
+                    // Tiles further than one tile inside the finer area are never needed as a stand-in
+                    if (inner.contains(tx * size - size, tz * size - size, size * 3)) continue;
+                    long key = ChunkMap.key(tx, tz);
+                    Tile tile = area.tiles.get(key);
+                    if (tile == null) {
+                        tile = new Tile(level, tx, tz);
+                        area.tiles.put(key, tile);
+                        area.tileList.add(tile);
+                        created.add(tile);
+                    }
+                    tile.stamp = stamp;
+                }
+            }
+            for (int i = area.tileList.size - 1; i >= 0; i--) {
+                Tile tile = area.tileList.get(i);
+                if (tile.stamp != stamp) {
+                    area.tileList.removeIndex(i);
+                    area.tiles.remove(ChunkMap.key(tile.tileX, tile.tileZ));
+                    dispose(tile);
+                }
+            }
+        }
+
+        // Nearest first; the builder runs them in order
+        created.sort((a, b) -> Integer.compare(distanceSq(a), distanceSq(b)));
+        for (Tile tile : created) {
+            queuedBuilds.incrementAndGet();
+            builder.execute(() -> build(tile));
+        }
+        created.clear();
+    }
+
+    private static int ceilDiv(int x, int y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    private int distanceSq(Tile tile) {
+        int dx = tile.chunkX * 2 + tile.size - centerX * 2;
+        int dz = tile.chunkZ * 2 + tile.size - centerZ * 2;
+        return dx * dx + dz * dz;
+    }
+
+    // Builder thread
+    private void build(Tile tile) {
+        queuedBuilds.decrementAndGet();
+        if (!tile.wanted) return;
+        try {
+            int step = tile.size * CHUNK_SIZE / TILE_CELLS;
+            int samples = TILE_CELLS + 2;
+            int[] groundHeights = new int[samples * samples];
+            BlockType[] groundBlocks = new BlockType[samples * samples];
+            int[] waterHeights = new int[samples * samples];
+            // One cell more on every side for the walls along the tile's edge
+            generator.sampleSurface(tile.chunkX * CHUNK_SIZE - step, tile.chunkZ * CHUNK_SIZE - step, samples, samples,
+                step, groundHeights, groundBlocks, waterHeights);
+            ChunkMeshData data = LodMesher.mesh(groundHeights, groundBlocks, waterHeights, palette, TILE_CELLS, step);
+            if (!tile.wanted) {
+                // Dropped while it was built, nobody will poll it
+                data.release();
+                return;
+            }
+            tile.data = data;
+            built.add(tile);
+        } catch (Exception e) {
+            System.err.println("Distant terrain tile (" + tile.tileX + ", " + tile.tileZ + ") level " + tile.level
+                + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Uploads a few finished tiles, then decides which tiles stand in for which area this frame and
+     * collects the ones in view.
+     */
+    public void update(Camera camera) {
+        for (int i = 0; i < UPLOADS_PER_FRAME; i++) {
+            Tile tile = built.poll();
+            if (tile == null) break;
+            if (tile.wanted) {
+                upload(tile);
+            } else {
+                // Moved out of range while it was built
+                tile.data.release();
+                tile.data = null;
+            }
+        }
+
+        visibleOpaque.clear();
+        visibleTranslucent.clear();
+        covering.clear();
+        drawnTiles = 0;
+        if (centerX == Integer.MIN_VALUE) return;
+        Level top = levels[LEVELS];
+        int size = 1 << LEVELS;
+        for (int tx = Math.floorDiv(top.minX, size); tx <= Math.floorDiv(top.maxX, size); tx++) {
+            for (int tz = Math.floorDiv(top.minZ, size); tz <= Math.floorDiv(top.maxZ, size); tz++) {
+                resolve(LEVELS, tx, tz, camera);
+            }
+        }
+    }
+
+    private void upload(Tile tile) {
+        ChunkMeshData data = tile.data;
+        tile.data = null;
+        tile.model = MeshModels.build(data, palette);
+        tile.opaque = createInstance(tile, MeshModels.nodeId(false, 0));
+        tile.translucent = createInstance(tile, MeshModels.nodeId(true, 0));
+        tile.ready = true;
+        float originX = tile.chunkX * CHUNK_SIZE;
+        float originZ = tile.chunkZ * CHUNK_SIZE;
+        float extent = tile.size * CHUNK_SIZE;
+        // Empty tiles keep a flat box; they are never drawn anyway
+        tile.bounds.min.set(originX, data.isEmpty() ? 0 : data.minY, originZ);
+        tile.bounds.max.set(originX + extent, data.isEmpty() ? 0 : data.maxY, originZ + extent);
+        tile.bounds.update();
+        for (ChunkMeshData.Part part : data.parts) {
+            tile.vertexCount += part.getVertexCount();
+        }
+        tile.bytes = MeshModels.getByteSize(data);
+    }
+
+    private ModelInstance createInstance(Tile tile, String nodeId) {
+        if (tile.model == null || tile.model.getNode(nodeId) == null) return null;
+        ModelInstance instance = new ModelInstance(tile.model, nodeId);
+        instance.transform.setToTranslation(tile.chunkX * CHUNK_SIZE, 0, tile.chunkZ * CHUNK_SIZE);
+        return instance;
+    }
+
+    // Draws the tile, or hands its area down to the finer level once that can cover it
+    private void resolve(int level, int tileX, int tileZ, Camera camera) {
+        Tile tile = levels[level].tiles.get(ChunkMap.key(tileX, tileZ));
+        int size = 1 << level;
+        boolean inner = levels[level - 1].contains(tileX * size, tileZ * size, size);
+        if (inner && (tile == null || !tile.ready || isCovered(level, tileX, tileZ))) {
+            // Level 1 hands over to the chunks, which the render list draws
+            if (level > 1) {
+                for (int i = 0; i < 4; i++) {
+                    resolve(level - 1, tileX * 2 + (i & 1), tileZ * 2 + (i >> 1), camera);
+                }
+            }
+            return;
+        }
+        if (tile == null || !tile.ready) return;
+
+        Level fullDetail = levels[0];
+        if (tile.chunkX + size > fullDetail.minX && tile.chunkX <= fullDetail.maxX
+            && tile.chunkZ + size > fullDetail.minZ && tile.chunkZ <= fullDetail.maxZ) {
+            covering.add(tile);
+        }
+        if (!camera.frustum.boundsInFrustum(tile.bounds)) return;
+        if (tile.opaque != null) visibleOpaque.add(tile.opaque);
+        if (tile.translucent != null) visibleTranslucent.add(tile.translucent);
+        drawnTiles++;
+    }
+
+    // Whether everything one level finer than the tile is ready to be drawn in its place
+    private boolean isCovered(int level, int tileX, int tileZ) {
+        int size = 1 << level;
+        if (level == 1) {
+            for (int x = tileX * size; x < tileX * size + size; x++) {
+                for (int z = tileZ * size; z < tileZ * size + size; z++) {
+                    Chunk chunk = chunks.getChunk(x, z);
+                    if (chunk == null || !chunk.isMeshUploaded()) return false;
+                }
+            }
+            return true;
+        }
+        for (int i = 0; i < 4; i++) {
+            int childX = tileX * 2 + (i & 1);
+            int childZ = tileZ * 2 + (i >> 1);
+            Tile child = levels[level - 1].tiles.get(ChunkMap.key(childX, childZ));
+            if (child != null && child.ready) continue;
+            int childSize = size / 2;
+            boolean inner = levels[level - 2].contains(childX * childSize, childZ * childSize, childSize);
+            if (!inner || !isCovered(level - 1, childX, childZ)) return false;
+        }
+        return true;
+    }
+
+    // Full detail chunks are drawn inside the full detail area where no tile stands in for them
+    @Override
+    public boolean isShown(int chunkX, int chunkZ) {
+        if (centerX == Integer.MIN_VALUE) return true;
+        if (!levels[0].contains(chunkX, chunkZ, 1)) return false;
+        for (int i = 0; i < covering.size; i++) {
+            if (covering.get(i).contains(chunkX, chunkZ)) return false;
+        }
+        return true;
+    }
+
+    public Array<ModelInstance> getVisibleOpaque() {
+        return visibleOpaque;
+    }
+
+    public Array<ModelInstance> getVisibleTranslucent() {
+        return visibleTranslucent;
+    }
+
+    // Ready tiles per level, tiles drawn last frame, vertex and GPU byte totals, builds not started yet
+    public String getStats() {
+        StringBuilder builder = new StringBuilder();
+        int vertices = 0;
+        long bytes = 0;
+        for (int level = 1; level <= LEVELS; level++) {
+            int ready = 0;
+            for (Tile tile : levels[level].tileList) {
+                if (!tile.ready) continue;
+                ready++;
+                vertices += tile.vertexCount;
+                bytes += tile.bytes;
+            }
+            builder.append("level ").append(level).append(' ').append(ready).append('/')
+                .append(levels[level].tileList.size).append(" tiles, ");
+        }
+        return builder.append(drawnTiles).append(" drawn, ").append(vertices).append(" vertices, ")
+            .append(bytes / 1024).append(" KB, ").append(queuedBuilds.get()).append(" builds queued").toString();
+    }
+
+    private void dispose(Tile tile) {
+        tile.wanted = false;
+        tile.ready = false;
+        tile.opaque = null;
+        tile.translucent = null;
+        if (tile.model != null) {
+            tile.model.dispose();
+            tile.model = null;
+        }
+    }
+
+    public void dispose() {
+        builder.shutdownNow();
+        // A build already running can still queue its tile; wait for it so the drain below releases its buffers
+        try {
+            if (!builder.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("Timed out waiting for distant terrain builds to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Level level : levels) {
+            for (Tile tile : level.tileList) {
+                dispose(tile);
+            }
+            level.tiles.clear();
+            level.tileList.clear();
+        }
+        Tile unused;
+        while ((unused = built.poll()) != null) {
+            unused.data.release();
+            unused.data = null;
+        }
+        visibleOpaque.clear();
+        visibleTranslucent.clear();
+        covering.clear();
+    }
+}
@@ -9,12 +9,13 @@ import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.graphics.g3d.*;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
-import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
-import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
+import io.github.half.mesh.BlockPalette;
+import io.github.half.mesh.MeshBufferArena;
 
 /** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
 public class Main extends ApplicationAdapter {
@@ -31,7 +32,8 @@ public class Main extends ApplicationAdapter {
     private Player player;
     private World world;
     private UIRenderer uiRenderer;
-    private Model[] blockModels;
+    private BlockPalette blockPalette;
+    private GLProfiler glProfiler;
     private VoxelCameraController cameraController;
 
     @Override
@@ -39,19 +41,26 @@ public class Main extends ApplicationAdapter {
         // Initialize game settings
         GameSettings.getInstance();
 
-        // Initialize rendering with our custom sorter
-        modelBatch = new ModelBatch(new VoxelRenderableSorter());
+        // Create block colors and materials
+        createBlockPalette();
+
+        // Initialize rendering with our custom sorter; chunk meshes are packed and need their own shader
+        modelBatch = new ModelBatch(new VoxelShader.Provider(blockPalette), new VoxelRenderableSorter());
 
         // Set up environment lighting
         environment = new Environment();
         environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.6f, 0.6f, 0.6f, 1f));
         environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -0.8f, -0.2f));
 
-        // Create block models
-        createBlockModels();
+        // Draw calls, shader switches and texture binds per frame, reported with the frame times.
+        // The profiler checks glGetError() after every GL call, so it is only installed on request.
+        if (isGLProfilingEnabled()) {
+            glProfiler = new GLProfiler(Gdx.graphics);
+            glProfiler.enable();
+        }
 
-        // Initialize world
-        world = new IslandWorld(blockModels);
+        // Initialize world. One seed drives every generator, so the same seed gives the same world.
+        world = new IslandWorld(blockPalette, getWorldSeed());
 
         // Initialize player
         player = new Player(WORLD_SIZE / 2f, 40f, WORLD_SIZE / 2f);
@@ -66,64 +75,81 @@ public class Main extends ApplicationAdapter {
         System.out.println("Voxel world initialized. World size: " + WORLD_SIZE + "x" + WORLD_HEIGHT + "x" + WORLD_SIZE);
     }
 
-    private void createBlockModels() {
-        ModelBuilder modelBuilder = new ModelBuilder();
-        blockModels = new Model[BlockType.values().length];
-
-        // Basic blocks
-        blockModels[BlockType.STONE.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(Color.GRAY)),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
-
-        blockModels[BlockType.DIRT.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.6f, 0.4f, 0.2f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
-
-        blockModels[BlockType.GRASS.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.3f, 0.8f, 0.2f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
-
-        blockModels[BlockType.SAND.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.9f, 0.8f, 0.4f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
-
-        blockModels[BlockType.WATER.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.2f, 0.5f, 1f, 0.7f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
-
-        // Ores and special blocks
-        blockModels[BlockType.COAL.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.2f, 0.2f, 0.2f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
-
-        blockModels[BlockType.IRON.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.7f, 0.5f, 0.3f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
-
-        blockModels[BlockType.GOLD.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(1f, 0.8f, 0f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
-
-        blockModels[BlockType.DIAMOND.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.6f, 0.9f, 1f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+    // -Dvoxelisle.seed=<number> replays a world; otherwise a new one is started
+    private static long getWorldSeed() {
+        String value = System.getProperty("voxelisle.seed");
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid voxelisle.seed '" + value + "', using a random seed");
+            }
+        }
+        return System.currentTimeMillis();
+    }
 
-        blockModels[BlockType.CRYSTAL.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.9f, 0.2f, 0.9f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+    // -Dvoxelisle.glprofile=true logs GL draw calls with the frame times; off by default
+    private static boolean isGLProfilingEnabled() {
+        return Boolean.getBoolean("voxelisle.glprofile");
+    }
 
-        blockModels[BlockType.OIL.ordinal()] = modelBuilder.createBox(1f, 1f, 1f,
-                new Material(ColorAttribute.createDiffuse(new Color(0.1f, 0.1f, 0.1f, 1f))),
-                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+    // One shared material for opaque blocks and one for translucent ones; the colors go into the chunk meshes
+    private void createBlockPalette() {
+        blockPalette = new BlockPalette()
+            // Basic blocks
+            .set(BlockType.STONE, Color.GRAY)
+            .set(BlockType.DIRT, new Color(0.6f, 0.4f, 0.2f, 1f))
+            .set(BlockType.GRASS, new Color(0.3f, 0.8f, 0.2f, 1f))
+            .set(BlockType.SAND, new Color(0.9f, 0.8f, 0.4f, 1f))
+            .set(BlockType.WATER, new Color(0.2f, 0.5f, 1f, 0.7f))
+            // Ores and special blocks
+            .set(BlockType.COAL, new Color(0.2f, 0.2f, 0.2f, 1f))
+            .set(BlockType.IRON, new Color(0.7f, 0.5f, 0.3f, 1f))
+            .set(BlockType.GOLD, new Color(1f, 0.8f, 0f, 1f))
+            .set(BlockType.DIAMOND, new Color(0.6f, 0.9f, 1f, 1f))
+            .set(BlockType.CRYSTAL, new Color(0.9f, 0.2f, 0.9f, 1f))
+            .set(BlockType.OIL, new Color(0.1f, 0.1f, 0.1f, 1f));
     }
 
     // Gravity toggle cooldown
+    private final FrameTimeStats frameTimes = new FrameTimeStats(600);
+    private float frameStatsTimer = 0f;
+    private static final float FRAME_STATS_INTERVAL = 10f; // Seconds between frame time reports
     private float gravityToggleCooldown = 0f;
     private static final float GRAVITY_TOGGLE_COOLDOWN_TIME = 0.5f; // Half a second cooldown
 
     @Override
     public void render() {
         float deltaTime = Gdx.graphics.getDeltaTime();
+        frameTimes.record(deltaTime);
+        frameStatsTimer += deltaTime;
+        if (frameStatsTimer >= FRAME_STATS_INTERVAL) {
+            frameStatsTimer = 0f;
+            System.out.println("Frame times: " + frameTimes + ", mesh uploads pending: "
+                + world.getPendingMeshUploadCount());
+            if (glProfiler != null) {
+                // Counters cover the previous frame
+                System.out.println("GL: " + glProfiler.getDrawCalls() + " draw calls, "
+                    + glProfiler.getShaderSwitches() + " shader switches, "
+                    + glProfiler.getTextureBindings() + " texture binds, "
+                    + glProfiler.getCalls() + " GL calls, "
+                    + world.getRenderedInstanceCount() + " instances");
+            }
+            ChunkRenderList renderList = world.getRenderList();
+            System.out.println("World.render: " + String.format("%.3f", world.takeAverageRenderMillis()) + " ms avg, render list "
+                + renderList.getSyncCount() + " syncs, " + renderList.getRefreshCount() + " refreshes, culling "
+                + renderList.getVisibleCount() + "/" + renderList.getDrawableCount() + " chunks visible with "
+                + renderList.getLastBoxTests() + " box tests, "
+                + renderList.getVisibleSectionCount() + " sections drawn, " + renderList.getReachedSectionCount()
+                + " reached by cave culling");
+            System.out.println("Mesh buffers: " + MeshBufferArena.getInstance().getStats());
+            if (world.getLodTerrain() != null) {
+                System.out.println("Distant terrain: " + world.getLodTerrain().getStats());
+            }
+        }
+        if (glProfiler != null) {
+            glProfiler.reset();
+        }
 
         // Update gravity toggle cooldown
         if (gravityToggleCooldown > 0) {
@@ -138,7 +164,7 @@ public class Main extends ApplicationAdapter {
 
         // Update game logic
         player.update(deltaTime, world);
-        world.update(player.getPosition());
+        world.update(player.getPosition(), player.getCamera());
 
         // Clear screen
         Gdx.gl.glViewport(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
@@ -164,14 +190,12 @@ public class Main extends ApplicationAdapter {
     @Override
     public void dispose() {
         modelBatch.dispose();
-        if (blockModels != null) {
-            for (Model model : blockModels) {
-                if (model != null) {
-                    model.dispose();
-                }
-            }
+        if (glProfiler != null) {
+            glProfiler.disable();
         }
         world.dispose();
+        // After the chunk meshes, which all draw with them
+        ChunkMesh.disposeSharedIndices();
         uiRenderer.dispose();
     }
 }
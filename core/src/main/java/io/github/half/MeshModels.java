@@ -0,0 +1,80 @@
+package io.github.half;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import io.github.half.mesh.BlockPalette;
+import io.github.half.mesh.ChunkMeshData;
+
+/**
+ * Turns ChunkMeshData into a Model. Each layer keeps one ChunkMesh per part, so the packed vertices go
+ * to the GPU as they are; every section gets its own node (see nodeId) over its index range, drawn
+ * with the palette's shared material for the layer. The model has to be drawn with VoxelShader.
+ * Used by chunks and by the distant terrain tiles. Must run on the render thread.
+ */
+final class MeshModels {
+    private MeshModels() {
+    }
+
+    // Null for empty data. The model's meshes take over the parts' vertex buffers, so the data is used up
+    static Model build(ChunkMeshData data, BlockPalette palette) {
+        if (data.isEmpty() || palette == null) {
+            data.release();
+            return null;
+        }
+        ModelBuilder builder = new ModelBuilder();
+        builder.begin();
+        ChunkMesh[] meshes = new ChunkMesh[data.parts.size];
+        for (int p = 0; p < data.parts.size; p++) {
+            meshes[p] = new ChunkMesh(data.parts.get(p));
+            builder.manage(meshes[p]); // Disposed with the model
+        }
+        for (int s = 0; s < data.sectionCount; s++) {
+            addSectionNode(builder, data, meshes, palette, false, s);
+            addSectionNode(builder, data, meshes, palette, true, s);
+        }
+        return builder.end();
+    }
+
+    static String nodeId(boolean translucent, int section) {
+        return (translucent ? BlockPalette.TRANSLUCENT_NODE : BlockPalette.OPAQUE_NODE) + "_" + section;
+    }
+
+    // Size of the vertex data build would send to the GPU; the quad indices are shared by every model
+    static long getByteSize(ChunkMeshData data) {
+        long bytes = 0;
+        for (ChunkMeshData.Part part : data.parts) {
+            bytes += part.vertices.limit();
+        }
+        return bytes;
+    }
+
+    // One node per section and layer; it only has several parts when the layer went past 64k vertices
+    private static void addSectionNode(ModelBuilder builder, ChunkMeshData data, ChunkMesh[] meshes, BlockPalette palette,
+                                       boolean translucent, int section) {
+        boolean any = false;
+        for (int p = 0; p < data.parts.size; p++) {
+            ChunkMeshData.Part part = data.parts.get(p);
+            int count = part.sectionIndexCounts[section];
+            if (part.translucent != translucent || count == 0) continue;
+            if (!any) {
+                builder.node().id = nodeId(translucent, section);
+                any = true;
+            }
+            MeshPart meshPart = builder.part(nodeId(translucent, section) + "_" + p, meshes[p], GL20.GL_TRIANGLES,
+                part.sectionIndexOffsets[section], count, palette.getMaterial(translucent));
+            setBounds(meshPart, part.sectionBounds, section);
+        }
+    }
+
+    // Center of the section's geometry, which VoxelRenderableSorter orders by. MeshPart.update would
+    // read the positions back as floats, so it comes from the bounds the mesher kept instead
+    private static void setBounds(MeshPart meshPart, int[] bounds, int section) {
+        int i = section * 6;
+        meshPart.halfExtents.set(bounds[i + 3] - bounds[i], bounds[i + 4] - bounds[i + 1], bounds[i + 5] - bounds[i + 2])
+            .scl(0.5f);
+        meshPart.center.set(bounds[i], bounds[i + 1], bounds[i + 2]).add(meshPart.halfExtents);
+        meshPart.radius = meshPart.halfExtents.len();
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.half;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BinaryHeap;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Chunks whose mesh data is built and waiting to become GL buffers. Pipeline threads add to it; the
+ * render thread drains it under a per-frame time and byte budget, chunks in view first and then by
+ * distance, so a burst of finished chunks is spread over several frames instead of one long one.
+ * Waiting chunks sit in a heap keyed by chunk, like ChunkScheduler, and are only re-scored when the
+ * camera moves or turns.
+ */
+public class MeshUploadQueue {
+    // Chunks in view go before any chunk out of view
+    private static final float OUT_OF_VIEW_PENALTY = 1e9f;
+    // Waiting chunks are re-scored once the camera has moved a block or turned by more than ~5 degrees
+    private static final float RESCORE_DISTANCE_SQ = 1f;
+    private static final float RESCORE_TURN_COS = 0.996f;
+
+    private final Array<Chunk> arrivals = new Array<>(); // Guarded by itself
+    // Render thread only: waiting chunks by priority, and the same entries by ChunkMap.key
+    private final BinaryHeap<Entry> heap = new BinaryHeap<>();
+    private final LongMap<Entry> pending = new LongMap<>();
+    private final Vector3 scoredPosition = new Vector3(Float.NaN, Float.NaN, Float.NaN);
+    private final Vector3 scoredDirection = new Vector3();
+    private int uploadedLastFrame;
+    private long uploadedBytesLastFrame;
+
+    private static class Entry extends BinaryHeap.Node {
+        Chunk chunk;
+
+        Entry(Chunk chunk) {
+            super(0);
+            this.chunk = chunk;
+        }
+    }
+
+    // Any thread
+    public void add(Chunk chunk) {
+        synchronized (arrivals) {
+            arrivals.add(chunk);
+        }
+    }
+
+    /**
+     * Uploads pending meshes until the time or byte budget is used up. At least one chunk is uploaded
+     * per call, so a mesh bigger than the byte budget still gets through. Render thread only.
+     */
+    public void process(Camera camera, float budgetMillis, long budgetBytes) {
+        if (cameraChanged(camera)) {
+            scoredPosition.set(camera.position);
+            scoredDirection.set(camera.direction);
+            for (Entry entry : pending.values()) {
+                heap.setValue(entry, priorityOf(entry.chunk, camera));
+            }
+        }
+
+        synchronized (arrivals) {
+            for (Chunk chunk : arrivals) {
+                long key = ChunkMap.key(chunk.chunkX, chunk.chunkZ);
+                Entry entry = pending.get(key);
+                if (entry != null) {
+                    // Rebuilds of a chunk that is already waiting are covered by its single upload
+                    entry.chunk = chunk;
+                    continue;
+                }
+                entry = new Entry(chunk);
+                pending.put(key, entry);
+                heap.add(entry, priorityOf(chunk, camera));
+            }
+            arrivals.clear();
+        }
+        uploadedLastFrame = 0;
+        uploadedBytesLastFrame = 0;
+
+        long start = System.nanoTime();
+        long budgetNanos = (long) (budgetMillis * 1_000_000L);
+        while (heap.size > 0) {
+            Chunk chunk = heap.peek().chunk;
+            long bytes = chunk.getPendingMeshBytes();
+            if (uploadedLastFrame > 0 && (uploadedBytesLastFrame + bytes > budgetBytes
+                || System.nanoTime() - start > budgetNanos)) {
+                break;
+            }
+            heap.pop();
+            pending.remove(ChunkMap.key(chunk.chunkX, chunk.chunkZ));
+            chunk.uploadMesh();
+            uploadedLastFrame++;
+            uploadedBytesLastFrame += bytes;
+        }
+    }
+
+    // Scores only go stale when the view does; new arrivals are scored against the current camera
+    private boolean cameraChanged(Camera camera) {
+        return !(camera.position.dst2(scoredPosition) <= RESCORE_DISTANCE_SQ)
+            || camera.direction.dot(scoredDirection) < RESCORE_TURN_COS;
+    }
+
+    private float priorityOf(Chunk chunk, Camera camera) {
+        float centerX = chunk.chunkX * 16 + 8;
+        float centerZ = chunk.chunkZ * 16 + 8;
+        float distanceSq = camera.position.dst2(centerX, camera.position.y, centerZ);
+        return chunk.isVisible(camera) ? distanceSq : distanceSq + OUT_OF_VIEW_PENALTY;
+    }
+
+    public int getPendingCount() {
+        synchronized (arrivals) {
+            return heap.size + arrivals.size;
+        }
+    }
+
+    public int getUploadedLastFrame() {
+        return uploadedLastFrame;
+    }
+
+    public long getUploadedBytesLastFrame() {
+        return uploadedBytesLastFrame;
+    }
+
+    public void clear() {
+        synchronized (arrivals) {
+            arrivals.clear();
+        }
+        heap.clear();
+        pending.clear();
+    }
+}
@@ -56,14 +56,89 @@ public class PerlinNoise {
         float u = fade(x);
         float v = fade(y);
         float w = fade(z);
-        
+
+        return lattice(X, Y, Z, x, y, z, u, v, w);
+    }
+
+    /**
+     * Samples a 2D lattice in one call: out[i + j * sizeX] = noise((originX + i * step) * frequency,
+     * (originZ + j * step) * frequency). The floor, fractional part and fade of each row and column
+     * are computed once instead of per sample; results are bit-identical to calling noise().
+     */
+    public void noiseGrid2D(float[] out, int originX, int originZ, int sizeX, int sizeZ, int step, float frequency) {
+        int[] cellX = new int[sizeX];
+        float[] fracX = new float[sizeX];
+        float[] fadeX = new float[sizeX];
+        prepareAxis(originX, sizeX, step, frequency, cellX, fracX, fadeX);
+
+        int[] cellZ = new int[sizeZ];
+        float[] fracZ = new float[sizeZ];
+        float[] fadeZ = new float[sizeZ];
+        prepareAxis(originZ, sizeZ, step, frequency, cellZ, fracZ, fadeZ);
+
+        // 2D noise is the z = 0 slice of the 3D noise
+        float w = fade(0);
+        for (int j = 0; j < sizeZ; j++) {
+            int row = j * sizeX;
+            for (int i = 0; i < sizeX; i++) {
+                out[row + i] = lattice(cellX[i], cellZ[j], 0, fracX[i], fracZ[j], 0, fadeX[i], fadeZ[j], w);
+            }
+        }
+    }
+
+    /**
+     * Samples a 3D lattice in one call, out[(y * sizeZ + z) * sizeX + x] for lattice point
+     * (originX + x * step, originY + y * step, originZ + z * step) scaled by the per-axis frequency.
+     * Bit-identical to calling noise() per sample.
+     */
+    public void noiseGrid3D(float[] out, int originX, int originY, int originZ, int sizeX, int sizeY, int sizeZ,
+                            int step, float frequencyX, float frequencyY, float frequencyZ) {
+        int[] cellX = new int[sizeX];
+        float[] fracX = new float[sizeX];
+        float[] fadeX = new float[sizeX];
+        prepareAxis(originX, sizeX, step, frequencyX, cellX, fracX, fadeX);
+
+        int[] cellY = new int[sizeY];
+        float[] fracY = new float[sizeY];
+        float[] fadeY = new float[sizeY];
+        prepareAxis(originY, sizeY, step, frequencyY, cellY, fracY, fadeY);
+
+        int[] cellZ = new int[sizeZ];
+        float[] fracZ = new float[sizeZ];
+        float[] fadeZ = new float[sizeZ];
+        prepareAxis(originZ, sizeZ, step, frequencyZ, cellZ, fracZ, fadeZ);
+
+        int index = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    // noise(x, y, z) with world y as the second axis, matching the scalar callers
+                    out[index++] = lattice(cellX[x], cellY[y], cellZ[z], fracX[x], fracY[y], fracZ[z],
+                        fadeX[x], fadeY[y], fadeZ[z]);
+                }
+            }
+        }
+    }
+
+    // Same floor / fraction / fade steps as noise(), once per lattice line
+    private void prepareAxis(int origin, int size, int step, float frequency, int[] cell, float[] frac, float[] fade) {
+        for (int i = 0; i < size; i++) {
+            float coordinate = (origin + i * step) * frequency;
+            cell[i] = (int) Math.floor(coordinate) & 255;
+            coordinate -= Math.floor(coordinate);
+            frac[i] = coordinate;
+            fade[i] = fade(coordinate);
+        }
+    }
+
+    private float lattice(int X, int Y, int Z, float x, float y, float z, float u, float v, float w) {
         int A = p[X] + Y;
         int AA = p[A] + Z;
         int AB = p[A + 1] + Z;
         int B = p[X + 1] + Y;
         int BA = p[B] + Z;
         int BB = p[B + 1] + Z;
-        
+
         return lerp(w, lerp(v, lerp(u, grad(p[AA], x, y, z),
                                        grad(p[BA], x - 1, y, z)),
                                lerp(u, grad(p[AB], x, y - 1, z),
@@ -73,7 +148,7 @@ public class PerlinNoise {
                                lerp(u, grad(p[AB + 1], x, y - 1, z - 1),
                                        grad(p[BB + 1], x - 1, y - 1, z - 1))));
     }
-    
+
     private float fade(float t) {
         return t * t * t * (t * (t * 6 - 15) + 10);
     }
@@ -68,8 +68,11 @@ public class Player {
 
         // Initialize camera
         camera = new PerspectiveCamera(70, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        camera.near = 0.1f;
-        camera.far = 300f;
+        // Kept as far out as the player's half width allows: with the far plane below, 0.1 left a
+        // 15000:1 depth range and the distant terrain skirts z-fought
+        camera.near = 0.25f;
+        // Far enough for the outermost ring of distant terrain (LodTerrain), corner to corner
+        camera.far = 1500f;
 
         // Set defaults
         viewMode = ViewMode.FIRST_PERSON;
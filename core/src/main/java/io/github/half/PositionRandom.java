@@ -0,0 +1,35 @@
+package io.github.half;
+
+/**
+ * Stateless random numbers keyed by (seed, x, y, z, feature). The same inputs always give the same
+ * value, no matter which thread asks or in what order, so generation can run in parallel and be
+ * cached by seed. Different features at the same position get independent values.
+ */
+public final class PositionRandom {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final long PRIME_X = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_Y = 0x165667B19E3779F9L;
+    private static final long PRIME_Z = 0x27D4EB2F165667C5L;
+
+    private PositionRandom() {
+    }
+
+    public static long hash(long seed, int x, int y, int z, int feature) {
+        long h = mix(seed + GOLDEN * (feature + 1));
+        h = mix(h ^ (x * PRIME_X));
+        h = mix(h ^ (y * PRIME_Y));
+        return mix(h ^ (z * PRIME_Z));
+    }
+
+    // Uniform in [0, 1), same precision as Random.nextFloat
+    public static float nextFloat(long seed, int x, int y, int z, int feature) {
+        return (hash(seed, x, y, z, feature) >>> 40) * 0x1.0p-24f;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -1,27 +1,162 @@
 package io.github.half;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.Renderable;
-import com.badlogic.gdx.graphics.g3d.utils.DefaultRenderableSorter;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
 
-public class VoxelRenderableSorter extends DefaultRenderableSorter {
-    private final Vector3 tmpV1 = new Vector3();
-    private final Vector3 tmpV2 = new Vector3();
+import java.util.Arrays;
+
+/**
+ * Orders a frame's renderables by a 64-bit key and a radix sort instead of a comparator: opaque first,
+ * grouped by material and then front to back so early depth testing rejects what is hidden behind
+ * near terrain; blended last and back to front so water blends over what is behind it. Blended
+ * geometry is keyed on depth before material, since blending needs the order more than the state.
+ *
+ * Key, most significant first:
+ *   opaque:  0 | material (15 bits) | depth (24 bits) | 0
+ *   blended: 1 | far-to-near depth (24 bits) | material (15 bits) | 0
+ * Depth is the squared distance from the camera to the center of the mesh part, kept as the top 24
+ * bits of its float representation (which orders like the value for non-negative floats).
+ *
+ * The sort is a least-significant-byte-first radix sort, which is stable, so renderables with equal
+ * keys keep their submission order; bytes that are the same in every key are skipped. There is no
+ * comparator to break its contract, and the arrays are kept between frames, so a frame allocates
+ * nothing once they are big enough.
+ */
+public class VoxelRenderableSorter implements RenderableSorter {
+    private static final int MATERIAL_BITS = 15;
+    private static final int DEPTH_BITS = 24;
+    private static final int MAX_MATERIALS = 1 << MATERIAL_BITS;
+    private static final long BLENDED = 1L << 63;
+
+    private final Vector3 center = new Vector3();
+    // Material id by material; materials with the same attributes share one, which is what matters for state
+    private final ObjectIntMap<Material> materialIds = new ObjectIntMap<>();
+    private Material lastMaterial;
+    private int lastMaterialId;
+    private boolean lastBlended;
+
+    private long[] keys = new long[0];
+    private long[] sortedKeys = new long[0];
+    private int[] order = new int[0];
+    private int[] sortedOrder = new int[0];
+    private Renderable[] scratch = new Renderable[0];
+    private final int[] counts = new int[256];
 
     @Override
     public void sort(Camera camera, Array<Renderable> renderables) {
-        // Skip sorting entirely to avoid the TimSort issue
-        // We'll just use the default order which is good enough for voxel rendering
+        int n = renderables.size;
+        if (n < 2) return;
+        ensureCapacity(n);
+
+        // Not renderables.items: ModelBatch's array is backed by a plain Object[]
+        for (int i = 0; i < n; i++) {
+            Renderable renderable = renderables.get(i);
+            scratch[i] = renderable;
+            keys[i] = keyOf(camera, renderable);
+            order[i] = i;
+        }
+
+        long[] keysIn = keys;
+        long[] keysOut = sortedKeys;
+        int[] orderIn = order;
+        int[] orderOut = sortedOrder;
+        for (int shift = 0; shift < 64; shift += 8) {
+            if (!countByte(keysIn, n, shift)) continue;
+            // Start of every bucket
+            int total = 0;
+            for (int b = 0; b < 256; b++) {
+                int count = counts[b];
+                counts[b] = total;
+                total += count;
+            }
+            for (int i = 0; i < n; i++) {
+                long key = keysIn[i];
+                int slot = counts[(int) (key >>> shift) & 0xFF]++;
+                keysOut[slot] = key;
+                orderOut[slot] = orderIn[i];
+            }
+            long[] swapKeys = keysIn;
+            keysIn = keysOut;
+            keysOut = swapKeys;
+            int[] swapOrder = orderIn;
+            orderIn = orderOut;
+            orderOut = swapOrder;
+        }
+
+        for (int i = 0; i < n; i++) {
+            renderables.set(i, scratch[orderIn[i]]);
+        }
+        // Only references to this frame's renderables would be left behind
+        Arrays.fill(scratch, 0, n, null);
     }
 
-    @Override
-    public int compare(Renderable o1, Renderable o2) {
-        // Simple comparison that won't throw exceptions
-        if (o1 == o2) return 0;
-        if (o1 == null) return 1;
-        if (o2 == null) return -1;
-        return 0;
+    // Counts the keys per value of one byte; false if they all have the same value there
+    private boolean countByte(long[] keys, int n, int shift) {
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < n; i++) {
+            counts[(int) (keys[i] >>> shift) & 0xFF]++;
+        }
+        return counts[(int) (keys[0] >>> shift) & 0xFF] != n;
+    }
+
+    private long keyOf(Camera camera, Renderable renderable) {
+        // Nothing to draw sorts last
+        if (renderable == null) return -1L;
+        long material = materialId(renderable.material);
+        long depth = depthOf(camera, renderable);
+        if (renderable.material != null && lastBlended) {
+            long farToNear = ((1L << DEPTH_BITS) - 1) - depth;
+            return BLENDED | farToNear << (63 - DEPTH_BITS) | material << (63 - DEPTH_BITS - MATERIAL_BITS);
+        }
+        return material << (63 - MATERIAL_BITS) | depth << (63 - MATERIAL_BITS - DEPTH_BITS);
+    }
+
+    private long depthOf(Camera camera, Renderable renderable) {
+        if (renderable.worldTransform == null) return 0;
+        // Chunk and tile instances are only translated, so this is the part's center in the world
+        renderable.worldTransform.getTranslation(center);
+        if (renderable.meshPart != null) center.add(renderable.meshPart.center);
+        float distanceSq = camera.position.dst2(center);
+        if (!(distanceSq >= 0)) return 0; // NaN
+        return Float.floatToIntBits(distanceSq) >>> (32 - DEPTH_BITS);
+    }
+
+    private static boolean isBlended(Material material) {
+        if (material == null || !material.has(BlendingAttribute.Type)) return false;
+        return ((BlendingAttribute) material.get(BlendingAttribute.Type)).blended;
+    }
+
+    private int materialId(Material material) {
+        if (material == null) return 0;
+        // Every chunk uses one of two materials, so the same one usually comes many times in a row
+        if (material == lastMaterial) return lastMaterialId;
+        int id = materialIds.get(material, -1);
+        if (id < 0) {
+            if (materialIds.size >= MAX_MATERIALS - 1) {
+                materialIds.clear();
+            }
+            id = materialIds.size + 1;
+            materialIds.put(material, id);
+        }
+        lastMaterial = material;
+        lastMaterialId = id;
+        lastBlended = isBlended(material);
+        return id;
+    }
+
+    private void ensureCapacity(int n) {
+        if (keys.length >= n) return;
+        int capacity = Math.max(n, keys.length + (keys.length >> 1));
+        keys = new long[capacity];
+        sortedKeys = new long[capacity];
+        order = new int[capacity];
+        sortedOrder = new int[capacity];
+        scratch = new Renderable[capacity];
     }
 }
@@ -0,0 +1,184 @@
+package io.github.half;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Attributes;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultShaderProvider;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import io.github.half.mesh.BlockPalette;
+
+/**
+ * Draws ChunkMesh geometry. The vertices only carry a position, a face and a palette index (see
+ * ChunkMeshData), so the normal is rebuilt from the face and the color read from the palette uniform
+ * here, then lit like the default shader lights a vertex: the environment's ambient light plus its
+ * first directional light. Anything else goes to the default shader through Provider.
+ */
+class VoxelShader implements Shader {
+    private static final String VERTEX_SHADER =
+        "attribute vec3 a_position;\n"
+        + "attribute vec2 a_faceAndColor;\n"
+        + "uniform mat4 u_projViewTrans;\n"
+        + "uniform mat4 u_worldTrans;\n"
+        + "uniform vec4 u_palette[PALETTE_SIZE];\n"
+        + "uniform vec3 u_ambient;\n"
+        + "uniform vec3 u_lightColor;\n"
+        + "uniform vec3 u_lightDirection;\n"
+        + "uniform float u_opacity;\n"
+        + "varying vec4 v_color;\n"
+        + "void main() {\n"
+        // Faces are +x, -x, +y, -y, +z, -z; instances are only translated, so the normal stays as it is
+        + "    float face = a_faceAndColor.x;\n"
+        + "    float axis = floor(face * 0.5);\n"
+        + "    float direction = 1.0 - 2.0 * (face - axis * 2.0);\n"
+        + "    vec3 normal = vec3(equal(vec3(axis), vec3(0.0, 1.0, 2.0))) * direction;\n"
+        + "    vec4 color = u_palette[int(a_faceAndColor.y)];\n"
+        + "    vec3 light = u_ambient + u_lightColor * max(dot(normal, -u_lightDirection), 0.0);\n"
+        + "    v_color = vec4(color.rgb * light, color.a * u_opacity);\n"
+        + "    gl_Position = u_projViewTrans * (u_worldTrans * vec4(a_position, 1.0));\n"
+        + "}\n";
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n"
+        + "precision mediump float;\n"
+        + "#endif\n"
+        + "varying vec4 v_color;\n"
+        + "void main() {\n"
+        + "    gl_FragColor = v_color;\n"
+        + "}\n";
+
+    private final BlockPalette palette;
+    private ShaderProgram program;
+    private RenderContext context;
+    private Mesh currentMesh;
+    private int projViewTrans, worldTrans, paletteColors, ambient, lightColor, lightDirection, opacity;
+
+    VoxelShader(BlockPalette palette) {
+        this.palette = palette;
+    }
+
+    // Whether the renderable is chunk geometry in the packed layout
+    static boolean isPacked(Renderable renderable) {
+        return renderable.meshPart.mesh.getVertexAttributes() == ChunkMesh.ATTRIBUTES;
+    }
+
+    @Override
+    public void init() {
+        program = new ShaderProgram(VERTEX_SHADER.replace("PALETTE_SIZE", Integer.toString(palette.size())),
+            FRAGMENT_SHADER);
+        if (!program.isCompiled()) {
+            throw new IllegalStateException("Voxel shader failed to compile: " + program.getLog());
+        }
+        projViewTrans = program.fetchUniformLocation("u_projViewTrans", true);
+        worldTrans = program.fetchUniformLocation("u_worldTrans", true);
+        paletteColors = program.fetchUniformLocation("u_palette[0]", true);
+        ambient = program.fetchUniformLocation("u_ambient", true);
+        lightColor = program.fetchUniformLocation("u_lightColor", true);
+        lightDirection = program.fetchUniformLocation("u_lightDirection", true);
+        opacity = program.fetchUniformLocation("u_opacity", true);
+    }
+
+    @Override
+    public int compareTo(Shader other) {
+        return 0;
+    }
+
+    @Override
+    public boolean canRender(Renderable renderable) {
+        return isPacked(renderable);
+    }
+
+    @Override
+    public void begin(Camera camera, RenderContext context) {
+        this.context = context;
+        program.bind();
+        program.setUniformMatrix(projViewTrans, camera.combined);
+        float[] colors = palette.getColors();
+        program.setUniform4fv(paletteColors, colors, 0, colors.length);
+        context.setDepthTest(GL20.GL_LEQUAL);
+        context.setDepthMask(true);
+        context.setCullFace(GL20.GL_BACK);
+        currentMesh = null;
+    }
+
+    @Override
+    public void render(Renderable renderable) {
+        setLights(renderable.environment);
+        Material material = renderable.material;
+        BlendingAttribute blending = material != null ? (BlendingAttribute) material.get(BlendingAttribute.Type) : null;
+        if (blending != null && blending.blended) {
+            context.setBlending(true, blending.sourceFunction, blending.destFunction);
+            program.setUniformf(opacity, blending.opacity);
+        } else {
+            context.setBlending(false, GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            program.setUniformf(opacity, 1f);
+        }
+        program.setUniformMatrix(worldTrans, renderable.worldTransform);
+
+        // Sections of one part come one after another, so the buffers are bound once for all of them
+        Mesh mesh = renderable.meshPart.mesh;
+        if (mesh != currentMesh) {
+            if (currentMesh != null) currentMesh.unbind(program);
+            mesh.bind(program);
+            currentMesh = mesh;
+        }
+        renderable.meshPart.render(program, false);
+    }
+
+    private void setLights(Attributes environment) {
+        ColorAttribute ambientLight = environment != null ? (ColorAttribute) environment.get(ColorAttribute.AmbientLight) : null;
+        if (ambientLight != null) {
+            program.setUniformf(ambient, ambientLight.color.r, ambientLight.color.g, ambientLight.color.b);
+        } else {
+            program.setUniformf(ambient, 0f, 0f, 0f);
+        }
+        DirectionalLightsAttribute lights = environment != null
+            ? (DirectionalLightsAttribute) environment.get(DirectionalLightsAttribute.Type) : null;
+        if (lights != null && lights.lights.size > 0) {
+            DirectionalLight light = lights.lights.first();
+            program.setUniformf(lightColor, light.color.r, light.color.g, light.color.b);
+            program.setUniformf(lightDirection, light.direction);
+        } else {
+            program.setUniformf(lightColor, 0f, 0f, 0f);
+            program.setUniformf(lightDirection, 0f, -1f, 0f);
+        }
+    }
+
+    @Override
+    public void end() {
+        if (currentMesh != null) {
+            currentMesh.unbind(program);
+            currentMesh = null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (program != null) {
+            program.dispose();
+            program = null;
+        }
+    }
+
+    /** Hands chunk meshes to a VoxelShader and everything else to the default shader. */
+    static class Provider extends DefaultShaderProvider {
+        private final BlockPalette palette;
+
+        Provider(BlockPalette palette) {
+            this.palette = palette;
+        }
+
+        @Override
+        protected Shader createShader(Renderable renderable) {
+            if (isPacked(renderable)) return new VoxelShader(palette);
+            return super.createShader(renderable);
+        }
+    }
+}
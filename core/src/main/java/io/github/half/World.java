@@ -2,14 +2,13 @@ package io.github.half;
 
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.g3d.Environment;
-import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ObjectMap;
+import io.github.half.mesh.BlockPalette;
 
 public class World {
     private static final int CHUNK_SIZE = 16;
@@ -17,76 +16,98 @@ public class World {
 
     ChunkManager chunkManager;
     private WorldGenerator worldGenerator;
-    private Model[] blockModels;
+    private BlockPalette palette;
+    private final ChunkRenderList renderList = new ChunkRenderList();
+    private LodTerrain lodTerrain; // Made on first use, once the chunk manager is final
+    private int renderedInstances;
+    private long renderNanos;
+    private int renderFrames;
+
+    public World(BlockPalette palette, long seed) {
+        this.palette = palette;
+        this.worldGenerator = new WorldGenerator(seed);
+        this.chunkManager = createChunkManager(palette, seed);
+    }
 
-    public World(Model[] blockModels) {
-        this.blockModels = blockModels;
-        this.worldGenerator = new WorldGenerator();
-        this.chunkManager = new ChunkManager(blockModels);
+    // Called from the constructor: a chunk manager opens the save files and starts its threads on creation,
+    // so subclasses pick their own here instead of replacing one afterwards
+    protected ChunkManager createChunkManager(BlockPalette palette, long seed) {
+        return new ChunkManager(palette, seed);
     }
 
     public void update(Vector3 playerPosition) {
-        // Update chunk loading through the chunk manager
-        chunkManager.update(playerPosition);
+        update(playerPosition, null);
     }
 
-    public void render(ModelBatch batch, Camera camera, Environment environment) {
-        // Get a snapshot of loaded chunks to avoid concurrent modification
-        ObjectMap<String, Chunk> loadedChunks = chunkManager.getLoadedChunks();
-        if (loadedChunks == null || loadedChunks.size == 0) {
-            return;
-        }
+    // The camera lets chunk loading favor what is in view
+    public void update(Vector3 playerPosition, Camera camera) {
+        // Update chunk loading through the chunk manager
+        chunkManager.update(playerPosition, camera);
 
-        // Batch instances by material for better performance
-        ObjectMap<String, Array<ModelInstance>> batches = new ObjectMap<>();
-        
-        // First pass: collect all instances and batch them by material
-        for (Chunk chunk : loadedChunks.values()) {
-            try {
-                if (chunk == null || !chunk.isVisible(camera) || !chunk.isReady()) {
-                    continue;
-                }
-
-                Array<ModelInstance> chunkInstances = chunk.getInstances();
-                if (chunkInstances == null || chunkInstances.size == 0) {
-                    continue;
-                }
-
-                for (ModelInstance instance : chunkInstances) {
-                    if (instance == null) continue;
-                    
-                    // Get material name for batching
-                    String materialName = "default";
-                    if (instance.materials != null && instance.materials.size > 0) {
-                        materialName = instance.materials.first().id;
-                    }
-                    
-                    // Get or create batch for this material
-                    Array<ModelInstance> batchList = batches.get(materialName);
-                    if (batchList == null) {
-                        batchList = new Array<>();
-                        batches.put(materialName, batchList);
-                    }
-                    batchList.add(instance);
-                }
-            } catch (Exception e) {
-                System.err.println("Error processing chunk: " + e.getMessage());
-                e.printStackTrace();
+        if (GameSettings.getInstance().isDistantTerrainEnabled()) {
+            if (lodTerrain == null) {
+                lodTerrain = new LodTerrain(chunkManager.getWorldGenerator(), palette, chunkManager);
             }
+            lodTerrain.setCenter(Math.floorDiv((int) Math.floor(playerPosition.x), CHUNK_SIZE),
+                Math.floorDiv((int) Math.floor(playerPosition.z), CHUNK_SIZE));
+        } else if (lodTerrain != null) {
+            lodTerrain.dispose();
+            lodTerrain = null;
         }
+    }
 
-        // Render each batch
-        for (Array<ModelInstance> batchList : batches.values()) {
-            if (batchList != null && batchList.size > 0) {
-                try {
-                    batch.render(batchList, environment);
-                } catch (Exception e) {
-                    System.err.println("Error rendering batch: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
+    public void render(ModelBatch batch, Camera camera, Environment environment) {
+        // Meshes are built on the pipeline threads; GL buffers can only be made here, a few per frame
+        chunkManager.uploadMeshes(camera);
+
+        // Only visibility is decided per frame; the instances are retained between frames
+        long start = System.nanoTime();
+        // Distant terrain first: it decides which chunks it still stands in for
+        if (lodTerrain != null) lodTerrain.update(camera);
+        renderList.update(chunkManager.getLoadedChunks(), camera, lodTerrain);
+        Array<ModelInstance> opaque = renderList.getVisibleOpaque();
+        Array<ModelInstance> translucent = renderList.getVisibleTranslucent();
+        Array<ModelInstance> distantOpaque = lodTerrain != null ? lodTerrain.getVisibleOpaque() : null;
+        Array<ModelInstance> distantTranslucent = lodTerrain != null ? lodTerrain.getVisibleTranslucent() : null;
+        // Every chunk shares the palette's two materials. VoxelRenderableSorter draws the opaque
+        // geometry front to back and the blended geometry back to front after it
+        try {
+            if (opaque.size > 0) batch.render(opaque, environment);
+            if (distantOpaque != null && distantOpaque.size > 0) batch.render(distantOpaque, environment);
+            if (translucent.size > 0) batch.render(translucent, environment);
+            if (distantTranslucent != null && distantTranslucent.size > 0) batch.render(distantTranslucent, environment);
+        } catch (Exception e) {
+            System.err.println("Error rendering chunks: " + e.getMessage());
+            e.printStackTrace();
         }
+        renderedInstances = opaque.size + translucent.size;
+        if (lodTerrain != null) renderedInstances += distantOpaque.size + distantTranslucent.size;
+        renderNanos += System.nanoTime() - start;
+        renderFrames++;
+    }
+
+    // Average CPU time of render() (excluding mesh uploads) since the last call, then starts over
+    public float takeAverageRenderMillis() {
+        float average = renderFrames == 0 ? 0 : renderNanos / 1e6f / renderFrames;
+        renderNanos = 0;
+        renderFrames = 0;
+        return average;
     }
+
+    public ChunkRenderList getRenderList() {
+        return renderList;
+    }
+
+    // Instances handed to the batch last frame: chunk sections and distant terrain tiles
+    public int getRenderedInstanceCount() {
+        return renderedInstances;
+    }
+
+    // Null while distant terrain is off or before the first update
+    public LodTerrain getLodTerrain() {
+        return lodTerrain;
+    }
+
     public float getHeightAt(int x, int z) {
         // Use your world generator to get height
         return worldGenerator.generateHeight(x, z); // You'll need to make this method public
@@ -97,12 +118,9 @@ public class World {
         int chunkZ = Math.floorDiv(z, 16);
 
         // Get the chunk
-        String chunkKey = chunkX + "," + chunkZ;
-        ObjectMap<String, Chunk> loadedChunks = chunkManager.getLoadedChunks();
-
-        if (loadedChunks.containsKey(chunkKey)) {
-            Chunk chunk = loadedChunks.get(chunkKey);
+        Chunk chunk = chunkManager.getChunk(chunkX, chunkZ);
 
+        if (chunk != null) {
             // Convert world coordinates to local chunk coordinates
             int localX = x - (chunkX * 16);
             int localZ = z - (chunkZ * 16);
@@ -115,7 +133,11 @@ public class World {
     }
     // E adiciona um método para saber quantos chunks estão carregados (usado no debug):
     public int getLoadedChunksCount() {
-        return chunkManager.getLoadedChunks().size;
+        return chunkManager.getLoadedChunkCount();
+    }
+
+    public int getPendingMeshUploadCount() {
+        return chunkManager.getUploadQueue().getPendingCount();
     }
 
     public void setBlockAt(int x, int y, int z, BlockType blockType) {
@@ -123,13 +145,13 @@ public class World {
             return;
         }
 
-        int chunkX = MathUtils.floor((float)x / CHUNK_SIZE);
-        int chunkZ = MathUtils.floor((float)z / CHUNK_SIZE);
-        String chunkKey = chunkX + "," + chunkZ;
+        int chunkX = Math.floorDiv(x, CHUNK_SIZE);
+        int chunkZ = Math.floorDiv(z, CHUNK_SIZE);
 
-        ObjectMap<String, Chunk> loadedChunks = chunkManager.getLoadedChunks();
-        if (loadedChunks.containsKey(chunkKey)) {
-            loadedChunks.get(chunkKey).setBlockAt(x - chunkX * CHUNK_SIZE, y, z - chunkZ * CHUNK_SIZE, blockType);
+        Chunk chunk = chunkManager.getChunk(chunkX, chunkZ);
+        if (chunk != null) {
+            chunk.setBlockAt(x - chunkX * CHUNK_SIZE, y, z - chunkZ * CHUNK_SIZE, blockType);
+            chunkManager.recordEdit(x, y, z, blockType);
 
             // Queue mesh rebuild in chunk manager instead of rebuilding immediately
             chunkManager.queueRebuildMesh(chunkX, chunkZ);
@@ -200,6 +222,11 @@ public class World {
     }
 
     public void dispose() {
+        renderList.clear();
+        if (lodTerrain != null) {
+            lodTerrain.dispose();
+            lodTerrain = null;
+        }
         chunkManager.dispose();
     }
 }
@@ -1,11 +1,14 @@
 package io.github.half;
 
-import java.util.Random;
-
 public class WorldGenerator {
     private static final int WATER_LEVEL = 32;
-    // Larger seed range for better random distribution
-    private static final long SEED = System.currentTimeMillis();
+    private static final int WORLD_HEIGHT = 64;
+
+    private static final float BIOME_SCALE = 0.004f;
+    private static final float CONTINENTAL_SCALE = 0.005f; // Continental features
+    private static final float HILL_SCALE = 0.02f;         // Medium features (hills)
+    private static final float DETAIL_SCALE = 0.08f;       // Small details
+    private static final float MICRO_SCALE = 0.15f;        // Micro details
 
     private PerlinNoise heightNoise;
     private PerlinNoise heightDetailNoise;
@@ -13,25 +16,73 @@ public class WorldGenerator {
     private PerlinNoise caveDensityNoise;
     private PerlinNoise oreNoise;
     private PerlinNoise biomeNoise;
-    private Random random;
-
-    public WorldGenerator() {
-        random = new Random(SEED);
+    // Feature ids for PositionRandom, one per ore roll
+    private static final int FEATURE_OIL = 1;
+    private static final int FEATURE_DIAMOND = 2;
+    private static final int FEATURE_CRYSTAL = 3;
+    private static final int FEATURE_GOLD = 4;
+    private static final int FEATURE_IRON = 5;
+    private static final int FEATURE_COAL = 6;
+
+    private final long seed;
+
+    public WorldGenerator(long seed) {
+        this.seed = seed;
         // Use specific seeds derived from main seed to avoid correlation
-        heightNoise = new PerlinNoise(SEED * 16807);
-        heightDetailNoise = new PerlinNoise(SEED * 48271);
-        caveNoise = new PerlinNoise(SEED * 65539);
-        caveDensityNoise = new PerlinNoise(SEED * 22699);
-        oreNoise = new PerlinNoise(SEED * 37449);
-        biomeNoise = new PerlinNoise(SEED * 104729);
+        heightNoise = new PerlinNoise(seed * 16807);
+        heightDetailNoise = new PerlinNoise(seed * 48271);
+        caveNoise = new PerlinNoise(seed * 65539);
+        caveDensityNoise = new PerlinNoise(seed * 22699);
+        oreNoise = new PerlinNoise(seed * 37449);
+        biomeNoise = new PerlinNoise(seed * 104729);
+
+        System.out.println("World generation started with seed: " + seed);
+    }
 
-        System.out.println("World generation started with seed: " + SEED);
+    public long getSeed() {
+        return seed;
     }
 
     public BlockType getBlockAt(int worldX, int worldY, int worldZ) {
         // Generate height using multiple octaves of Perlin noise
-        float height = generateHeight(worldX, worldZ);
+        return getBlockAt(worldX, worldY, worldZ, generateHeight(worldX, worldZ));
+    }
+
+    /**
+     * Generates a whole (x, z) column in one pass: the height and everything derived from it is
+     * computed once instead of once per voxel. Entries at and above the returned top index are air
+     * and are left untouched, so callers can treat them as a bulk fill.
+     */
+    public int generateColumn(int worldX, int worldZ, BlockType[] column) {
+        return generateColumn(worldX, worldZ, sampleColumn(worldX, worldZ), column);
+    }
 
+    // Same as above with the column's base sample (see sampleColumns) already computed
+    public int generateColumn(int worldX, int worldZ, float columnSample, BlockType[] column) {
+        float height = columnSample;
+        // Nothing but air above both the terrain and the water surface
+        int top = Math.min(column.length, Math.max((int) Math.floor(height), WATER_LEVEL) + 1);
+        for (int y = 0; y < top; y++) {
+            column[y] = getBlockAt(worldX, y, worldZ, height);
+        }
+        return top;
+    }
+
+    /**
+     * Optional second pass over a column produced by generateColumn, for detail that is too expensive
+     * to hold up the terrain pass. Chunks run it as their DECORATION stage. Returns true if the column
+     * was changed. The plain generator has nothing to add.
+     */
+    public boolean decorateColumn(int worldX, int worldZ, float columnSample, BlockType[] column) {
+        return false;
+    }
+
+    // Lets chunks skip the decoration stage entirely
+    public boolean hasDecoration() {
+        return false;
+    }
+
+    private BlockType getBlockAt(int worldX, int worldY, int worldZ, float height) {
         // Below sea level
         if (worldY <= WATER_LEVEL) {
             if (worldY > height) {
@@ -83,28 +134,84 @@ public class WorldGenerator {
         }
     }
 
+    // The per-column value everything else is derived from; the terrain height for this generator
+    protected float sampleColumn(int x, int z) {
+        return generateHeight(x, z);
+    }
+
+    /**
+     * Base samples for a sizeX x sizeZ block of columns starting at (originX, originZ), spaced step
+     * blocks apart, out[i + j * sizeX]. Uses the batch noise API so a whole chunk is sampled with a
+     * handful of grid calls; values match sampleColumn() exactly.
+     */
+    public float[] sampleColumns(int originX, int originZ, int sizeX, int sizeZ, int step) {
+        int count = sizeX * sizeZ;
+        float[] biome = new float[count];
+        float[] continental = new float[count];
+        float[] hills = new float[count];
+        float[] detail = new float[count];
+        float[] micro = new float[count];
+
+        biomeNoise.noiseGrid2D(biome, originX, originZ, sizeX, sizeZ, step, BIOME_SCALE);
+        heightNoise.noiseGrid2D(continental, originX, originZ, sizeX, sizeZ, step, CONTINENTAL_SCALE);
+        heightNoise.noiseGrid2D(hills, originX, originZ, sizeX, sizeZ, step, HILL_SCALE);
+        heightDetailNoise.noiseGrid2D(detail, originX, originZ, sizeX, sizeZ, step, DETAIL_SCALE);
+        heightDetailNoise.noiseGrid2D(micro, originX, originZ, sizeX, sizeZ, step, MICRO_SCALE);
+
+        float[] heights = new float[count];
+        for (int i = 0; i < count; i++) {
+            heights[i] = combineHeight(biome[i], continental[i], hills[i], detail[i], micro[i]);
+        }
+        return heights;
+    }
+
+    /**
+     * Surface of a grid of columns laid out like sampleColumns, from the 2D column samples only, for
+     * terrain drawn from far away (LodTerrain). groundHeights gets the y just above the highest solid
+     * block and groundBlocks the block on top (AIR and 0 where there is no ground); waterHeights the y
+     * just above the water, or 0 where the column has no water on top. Caves, ores and decoration are
+     * not looked at.
+     */
+    public void sampleSurface(int originX, int originZ, int sizeX, int sizeZ, int step,
+                              int[] groundHeights, BlockType[] groundBlocks, int[] waterHeights) {
+        float[] samples = sampleColumns(originX, originZ, sizeX, sizeZ, step);
+        for (int i = 0; i < samples.length; i++) {
+            float height = samples[i];
+            int ground = Math.min((int) Math.floor(height), WORLD_HEIGHT - 1);
+            groundHeights[i] = ground + 1;
+            // Same surface layer as getBlockAt
+            groundBlocks[i] = height > WATER_LEVEL + 2 ? BlockType.GRASS : BlockType.SAND;
+            waterHeights[i] = ground < WATER_LEVEL ? WATER_LEVEL + 1 : 0;
+        }
+    }
+
     public float generateHeight(int x, int z) {
-        // Improved terrain generation with better scale separation and biome influence
-        float scale1 = 0.005f;  // Continental features
-        float scale2 = 0.02f;   // Medium features (hills)
-        float scale3 = 0.08f;   // Small details
-        float scale4 = 0.15f;   // Micro details
+        return combineHeight(
+            biomeNoise.noise(x * BIOME_SCALE, z * BIOME_SCALE),
+            heightNoise.noise(x * CONTINENTAL_SCALE, z * CONTINENTAL_SCALE),
+            heightNoise.noise(x * HILL_SCALE, z * HILL_SCALE),
+            heightDetailNoise.noise(x * DETAIL_SCALE, z * DETAIL_SCALE),
+            heightDetailNoise.noise(x * MICRO_SCALE, z * MICRO_SCALE));
+    }
 
+    // Improved terrain generation with better scale separation and biome influence
+    private float combineHeight(float biomeSample, float continentalSample, float hillSample,
+                                float detailSample, float microSample) {
         // Biome influence (0.0 - 1.0)
-        float biomeValue = (biomeNoise.noise(x * 0.004f, z * 0.004f) + 1) * 0.5f;
+        float biomeValue = (biomeSample + 1) * 0.5f;
 
         // Base continental height
-        float continentalHeight = (heightNoise.noise(x * scale1, z * scale1) + 1) * 0.5f;
+        float continentalHeight = (continentalSample + 1) * 0.5f;
 
         // Apply exponential curve to create more distinct land and ocean areas
         continentalHeight = (float)Math.pow(continentalHeight, 1.5);
 
         // Hills and medium features
-        float hillHeight = heightNoise.noise(x * scale2, z * scale2);
+        float hillHeight = hillSample;
 
         // Small terrain details
-        float detailHeight = heightDetailNoise.noise(x * scale3, z * scale3) * 0.3f +
-                             heightDetailNoise.noise(x * scale4, z * scale4) * 0.15f;
+        float detailHeight = detailSample * 0.3f +
+                             microSample * 0.15f;
 
         // Combine all features with appropriate weights
         float height = WATER_LEVEL;
@@ -168,35 +275,40 @@ public class WorldGenerator {
         float depth = surfaceHeight - y;
 
         // Oil deposits (deep underground, rare)
-        if (y < 15 && oreValue > 0.85f && random.nextFloat() < 0.001f) {
+        if (y < 15 && oreValue > 0.85f && oreRoll(x, y, z, FEATURE_OIL) < 0.001f) {
             return BlockType.OIL;
         }
 
         // Diamond (very deep, very rare)
-        if (y < 20 && depth > 20 && oreValue > 0.9f && random.nextFloat() < 0.0005f) {
+        if (y < 20 && depth > 20 && oreValue > 0.9f && oreRoll(x, y, z, FEATURE_DIAMOND) < 0.0005f) {
             return BlockType.DIAMOND;
         }
 
         // Crystal (rare, mid-depth)
-        if (y > 20 && y < 40 && oreValue > 0.88f && random.nextFloat() < 0.001f) {
+        if (y > 20 && y < 40 && oreValue > 0.88f && oreRoll(x, y, z, FEATURE_CRYSTAL) < 0.001f) {
             return BlockType.CRYSTAL;
         }
 
         // Gold (deep, rare)
-        if (y < 30 && depth > 15 && oreValue > 0.82f && random.nextFloat() < 0.003f) {
+        if (y < 30 && depth > 15 && oreValue > 0.82f && oreRoll(x, y, z, FEATURE_GOLD) < 0.003f) {
             return BlockType.GOLD;
         }
 
         // Iron (common)
-        if (y < 50 && depth > 5 && oreValue > 0.75f && random.nextFloat() < 0.01f) {
+        if (y < 50 && depth > 5 && oreValue > 0.75f && oreRoll(x, y, z, FEATURE_IRON) < 0.01f) {
             return BlockType.IRON;
         }
 
         // Coal (very common)
-        if (y < 55 && depth > 3 && oreValue > 0.7f && random.nextFloat() < 0.02f) {
+        if (y < 55 && depth > 3 && oreValue > 0.7f && oreRoll(x, y, z, FEATURE_COAL) < 0.02f) {
             return BlockType.COAL;
         }
 
         return BlockType.AIR; // No ore
     }
+
+    // Same roll for the same block in the same world, whichever thread generates it
+    private float oreRoll(int x, int y, int z, int feature) {
+        return PositionRandom.nextFloat(seed, x, y, z, feature);
+    }
 }
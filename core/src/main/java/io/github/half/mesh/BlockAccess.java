@@ -0,0 +1,9 @@
+package io.github.half.mesh;
+
+import io.github.half.BlockType;
+
+// Read access to the blocks of one chunk for the mesher. Coordinates are chunk-local and may be one
+// block outside the chunk on every side, so faces on the border can be tested against the neighbor.
+public interface BlockAccess {
+    BlockType getBlock(int x, int y, int z);
+}
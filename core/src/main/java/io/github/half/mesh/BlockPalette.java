@@ -0,0 +1,65 @@
+package io.github.half.mesh;
+
+import io.github.half.BlockType;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+
+/**
+ * Block colors and the two materials every chunk mesh is drawn with. Vertices only carry the block's
+ * palette index (its BlockType ordinal) and the shader looks the color up in getColors, so all opaque
+ * geometry shares one white material and everything with alpha below 1 shares one blended material;
+ * chunks differ only in their meshes. Block types without a color are not drawn (they still hide
+ * faces behind them, like any other block).
+ */
+public class BlockPalette {
+    public static final String OPAQUE_NODE = "opaque";
+    public static final String TRANSLUCENT_NODE = "translucent";
+
+    // r, g, b, a per block type, the layout of the shader's palette uniform
+    private final float[] colors = new float[BlockType.values().length * 4];
+    private final boolean[] drawn = new boolean[BlockType.values().length];
+    private final boolean[] translucent = new boolean[BlockType.values().length];
+    private final Material opaqueMaterial;
+    private final Material translucentMaterial;
+
+    public BlockPalette() {
+        opaqueMaterial = new Material("voxel_opaque", ColorAttribute.createDiffuse(Color.WHITE));
+        translucentMaterial = new Material("voxel_translucent", ColorAttribute.createDiffuse(Color.WHITE),
+            new BlendingAttribute(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA));
+    }
+
+    public BlockPalette set(BlockType type, Color color) {
+        int i = type.ordinal() * 4;
+        colors[i] = color.r;
+        colors[i + 1] = color.g;
+        colors[i + 2] = color.b;
+        colors[i + 3] = color.a;
+        drawn[type.ordinal()] = true;
+        translucent[type.ordinal()] = color.a < 1f;
+        return this;
+    }
+
+    public boolean isDrawn(BlockType type) {
+        return drawn[type.ordinal()];
+    }
+
+    public boolean isTranslucent(BlockType type) {
+        return translucent[type.ordinal()];
+    }
+
+    // Palette index i is at [i * 4, i * 4 + 4); not to be modified
+    public float[] getColors() {
+        return colors;
+    }
+
+    public int size() {
+        return BlockType.values().length;
+    }
+
+    public Material getMaterial(boolean translucent) {
+        return translucent ? translucentMaterial : opaqueMaterial;
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.half.mesh;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+
+/**
+ * CPU-side geometry of one chunk as built by GreedyMesher: an opaque and a translucent layer, each
+ * one or more parts of packed vertices ready to be copied into a GL Mesh. Nothing here touches GL,
+ * so it can be built on a worker thread and inspected without a context.
+ *
+ * A vertex is BYTES_PER_VERTEX bytes: x, y, z as 16-bit integers (chunk-local, in the platform's byte
+ * order, since that is what GL reads), then the face (0 +x, 1 -x, 2 +y, 3 -y, 4 +z, 5 -z, the order
+ * of SectionConnectivity) and the palette index (BlockType ordinal) as one byte each. The normal and
+ * color are looked up in the shader. Every quad is 4 vertices in the same winding, so parts have no
+ * indices of their own: all of them are drawn with one shared index buffer of the pattern
+ * 0 1 2 2 3 0 (see QUAD_INDICES).
+ *
+ * The vertex buffers are leased from MeshBufferArena. Whoever ends up with the data either hands the
+ * buffers on (MeshModels gives them to the GL meshes) or calls release when it is thrown away.
+ */
+public class ChunkMeshData {
+    public static final int BYTES_PER_VERTEX = 8;
+    public static final int VERTICES_PER_QUAD = 4;
+    public static final int INDICES_PER_QUAD = 6;
+    // 16-bit indices; parts are split before they would go past this
+    public static final int MAX_VERTICES_PER_PART = 65536;
+    public static final int MAX_QUADS_PER_PART = MAX_VERTICES_PER_PART / VERTICES_PER_QUAD;
+    // Offsets of the two triangles of a quad into its 4 vertices
+    public static final short[] QUAD_INDICES = {0, 1, 2, 2, 3, 0};
+
+    public final Array<Part> parts = new Array<>();
+    public final int sectionCount;
+    // Visible block faces before merging, and the quads they were merged into
+    public int faceCount;
+    public int quadCount;
+    // Height range the quads span, for culling boxes; only meaningful when not empty
+    public int minY = Integer.MAX_VALUE;
+    public int maxY = Integer.MIN_VALUE;
+    // SectionConnectivity of every section, filled in by the chunk next to the geometry
+    public long[] sectionConnectivity;
+
+    public ChunkMeshData(int sectionCount) {
+        this.sectionCount = sectionCount;
+    }
+
+    public static class Part {
+        public final boolean translucent;
+        // Direct, from position 0 to the limit
+        public final ByteBuffer vertices;
+        public final int quadCount;
+        // Where each section's triangles are in the shared quad indices; a count of 0 means none in this part
+        public final int[] sectionIndexOffsets;
+        public final int[] sectionIndexCounts;
+        // Box around each section's vertices, min x, y, z then max x, y, z; only set where the count is not 0
+        public final int[] sectionBounds;
+
+        Part(boolean translucent, ByteBuffer vertices, int quadCount, int[] sectionIndexOffsets, int[] sectionIndexCounts,
+             int[] sectionBounds) {
+            this.translucent = translucent;
+            this.vertices = vertices;
+            this.quadCount = quadCount;
+            this.sectionIndexOffsets = sectionIndexOffsets;
+            this.sectionIndexCounts = sectionIndexCounts;
+            this.sectionBounds = sectionBounds;
+        }
+
+        public int getVertexCount() {
+            return vertices.limit() / BYTES_PER_VERTEX;
+        }
+
+        public int getIndexCount() {
+            return quadCount * INDICES_PER_QUAD;
+        }
+    }
+
+    // Returns the vertex buffers to the arena; for data that never reached the GPU
+    public void release() {
+        for (Part part : parts) {
+            MeshBufferArena.getInstance().release(part.vertices);
+        }
+        parts.clear();
+    }
+
+    public boolean isEmpty() {
+        return quadCount == 0;
+    }
+
+    public int getQuadCount(boolean translucent) {
+        int count = 0;
+        for (Part part : parts) {
+            if (part.translucent == translucent) count += part.quadCount;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,234 @@
+package io.github.half.mesh;
+
+import io.github.half.BlockType;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Builds chunk geometry by greedy meshing: for every slice of the chunk along each axis and face
+ * direction, visible faces of the same block type are merged into the largest rectangles that fit,
+ * and each rectangle becomes one quad. A flat 16x16 wall of stone is 1 quad instead of 256 cubes.
+ * Quads carry their face and palette index (see ChunkMeshData) and go to the opaque or the
+ * translucent layer by the palette color's alpha.
+ *
+ * The volume is meshed one horizontal section at a time and every part records the index range of
+ * each section, so a section can be drawn (or culled) on its own while sharing the part's buffers.
+ * Vertices are written into buffers leased from MeshBufferArena, which the parts then own.
+ */
+public final class GreedyMesher {
+    private GreedyMesher() {
+    }
+
+    public static ChunkMeshData mesh(BlockAccess blocks, BlockPalette palette, int sizeX, int sizeY, int sizeZ, int sectionHeight) {
+        int sectionCount = sizeY / sectionHeight;
+        PartBuilder opaque = new PartBuilder(false, sectionCount);
+        PartBuilder translucent = new PartBuilder(true, sectionCount);
+        ChunkMeshData data = new ChunkMeshData(sectionCount);
+        // One mask for every slice of the build, big enough for the largest one
+        BlockType[] mask = new BlockType[Math.max(sizeX * sectionHeight, Math.max(sectionHeight * sizeZ, sizeZ * sizeX))];
+        for (int section = 0; section < sectionCount; section++) {
+            int originY = section * sectionHeight;
+            opaque.beginSection(section);
+            translucent.beginSection(section);
+            // Faces on the section's top and bottom still look into the real blocks next to it
+            meshSection((x, y, z) -> blocks.getBlock(x, y + originY, z), palette, sizeX, sectionHeight, sizeZ,
+                originY, opaque, translucent, data, mask);
+        }
+        opaque.flush(data);
+        translucent.flush(data);
+        return data;
+    }
+
+    private static void meshSection(BlockAccess blocks, BlockPalette palette, int sizeX, int sizeY, int sizeZ,
+                                    int originY, PartBuilder opaque, PartBuilder translucent, ChunkMeshData data,
+                                    BlockType[] mask) {
+        int[] dims = {sizeX, sizeY, sizeZ};
+        int[] pos = new int[3];
+
+        for (int axis = 0; axis < 3; axis++) {
+            // u and v span the slice; (u, v, axis) is right-handed, which fixes the winding below
+            int u = (axis + 1) % 3;
+            int v = (axis + 2) % 3;
+            int width = dims[u];
+            int height = dims[v];
+
+            for (int side = -1; side <= 1; side += 2) {
+                for (int slice = 0; slice < dims[axis]; slice++) {
+                    // Faces in this slice that look into something they can be seen through
+                    boolean any = false;
+                    for (int j = 0; j < height; j++) {
+                        for (int i = 0; i < width; i++) {
+                            pos[axis] = slice;
+                            pos[u] = i;
+                            pos[v] = j;
+                            BlockType type = blocks.getBlock(pos[0], pos[1], pos[2]);
+                            BlockType face = null;
+                            if (type != BlockType.AIR && palette.isDrawn(type)) {
+                                pos[axis] += side;
+                                if (isFaceVisible(type, blocks.getBlock(pos[0], pos[1], pos[2]))) {
+                                    face = type;
+                                    any = true;
+                                    data.faceCount++;
+                                }
+                            }
+                            mask[i + j * width] = face;
+                        }
+                    }
+                    if (!any) continue;
+
+                    // Grow each face right along u, then down along v while whole rows still match
+                    for (int j = 0; j < height; j++) {
+                        for (int i = 0; i < width; ) {
+                            BlockType type = mask[i + j * width];
+                            if (type == null) {
+                                i++;
+                                continue;
+                            }
+                            int w = 1;
+                            while (i + w < width && mask[i + w + j * width] == type) {
+                                w++;
+                            }
+                            int h = 1;
+                            grow:
+                            while (j + h < height) {
+                                for (int k = 0; k < w; k++) {
+                                    if (mask[i + k + (j + h) * width] != type) break grow;
+                                }
+                                h++;
+                            }
+                            for (int dh = 0; dh < h; dh++) {
+                                for (int dw = 0; dw < w; dw++) {
+                                    mask[i + dw + (j + dh) * width] = null;
+                                }
+                            }
+
+                            PartBuilder builder = palette.isTranslucent(type) ? translucent : opaque;
+                            builder.addQuad(data, type, originY, axis, u, v, side, slice, i, j, w, h);
+                            data.quadCount++;
+                            i += w;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A face is drawn only if the block next to it lets it be seen:
+     * - nothing is visible through an opaque block;
+     * - a liquid against the same liquid has no face between them (no inner water walls);
+     * - a solid against a liquid is drawn, since it shows through (the sea floor under water);
+     * - a liquid against a solid is hidden by the first rule.
+     */
+    private static boolean isFaceVisible(BlockType type, BlockType neighbor) {
+        if (neighbor == BlockType.AIR) return true;
+        if (neighbor.isOpaque()) return false;
+        return type != neighbor;
+    }
+
+    // Collects quads into parts of at most 64k vertices; LodMesher builds with it too
+    static class PartBuilder {
+        private final boolean translucent;
+        private final MeshBufferArena arena = MeshBufferArena.getInstance();
+        // Leased on the first quad of every part and handed to it by flush
+        private ByteBuffer vertices;
+        private final int[] corner = new int[3];
+        // Index range and bounds of every section in the part being built
+        private final int[] sectionOffsets;
+        private final int[] sectionCounts;
+        private final int[] sectionBounds;
+        private final int[] bounds = new int[6];
+        private int section = -1;
+        private int sectionStart;
+        private int quadCount;
+
+        PartBuilder(boolean translucent, int sectionCount) {
+            this.translucent = translucent;
+            this.sectionOffsets = new int[sectionCount];
+            this.sectionCounts = new int[sectionCount];
+            this.sectionBounds = new int[sectionCount * 6];
+        }
+
+        void beginSection(int next) {
+            endSection();
+            section = next;
+            sectionStart = quadCount;
+            resetBounds();
+        }
+
+        private void endSection() {
+            if (section < 0) return;
+            sectionOffsets[section] = sectionStart * ChunkMeshData.INDICES_PER_QUAD;
+            sectionCounts[section] = (quadCount - sectionStart) * ChunkMeshData.INDICES_PER_QUAD;
+            System.arraycopy(bounds, 0, sectionBounds, section * 6, 6);
+        }
+
+        private void resetBounds() {
+            bounds[0] = bounds[1] = bounds[2] = Integer.MAX_VALUE;
+            bounds[3] = bounds[4] = bounds[5] = Integer.MIN_VALUE;
+        }
+
+        void addQuad(ChunkMeshData data, BlockType type, int originY, int axis, int u, int v, int side, int slice, int i, int j, int w, int h) {
+            if (quadCount == ChunkMeshData.MAX_QUADS_PER_PART) {
+                flush(data);
+            }
+            ensureRoom();
+            // The face lies on the far side of the block for +side, the near side for -side
+            corner[axis] = side > 0 ? slice + 1 : slice;
+            byte face = (byte) (axis * 2 + (side > 0 ? 0 : 1));
+            for (int n = 0; n < 4; n++) {
+                // Counter-clockwise seen from the side the face looks to, so every quad fits QUAD_INDICES
+                int c = side > 0 ? n : (4 - n) & 3;
+                corner[u] = (c == 1 || c == 2) ? i + w : i;
+                corner[v] = (c == 2 || c == 3) ? j + h : j;
+                int y = corner[1] + originY;
+                // Native byte order, which is what GL reads
+                vertices.putShort((short) corner[0]);
+                vertices.putShort((short) y);
+                vertices.putShort((short) corner[2]);
+                vertices.put(face);
+                vertices.put((byte) type.ordinal());
+                data.minY = Math.min(data.minY, y);
+                data.maxY = Math.max(data.maxY, y);
+                bounds[0] = Math.min(bounds[0], corner[0]);
+                bounds[1] = Math.min(bounds[1], y);
+                bounds[2] = Math.min(bounds[2], corner[2]);
+                bounds[3] = Math.max(bounds[3], corner[0]);
+                bounds[4] = Math.max(bounds[4], y);
+                bounds[5] = Math.max(bounds[5], corner[2]);
+            }
+            quadCount++;
+        }
+
+        // Room for one more quad, moving to a buffer of the next size class when full
+        private void ensureRoom() {
+            int quadBytes = ChunkMeshData.VERTICES_PER_QUAD * ChunkMeshData.BYTES_PER_VERTEX;
+            if (vertices == null) {
+                vertices = arena.lease(MeshBufferArena.MIN_CLASS_BYTES);
+            } else if (vertices.remaining() < quadBytes) {
+                ByteBuffer larger = arena.lease(vertices.capacity() * 2);
+                vertices.flip();
+                larger.put(vertices);
+                arena.release(vertices);
+                vertices = larger;
+            }
+        }
+
+        void flush(ChunkMeshData data) {
+            endSection();
+            if (quadCount > 0) {
+                vertices.flip();
+                data.parts.add(new ChunkMeshData.Part(translucent, vertices, quadCount,
+                    sectionOffsets.clone(), sectionCounts.clone(), sectionBounds.clone()));
+                vertices = null;
+            }
+            Arrays.fill(sectionOffsets, 0);
+            Arrays.fill(sectionCounts, 0);
+            // A section cut off by the 64k limit continues at the start of the next part
+            sectionStart = 0;
+            quadCount = 0;
+            resetBounds();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.half.mesh;
+
+import io.github.half.BlockType;
+
+/**
+ * Builds coarse geometry for a square of terrain from its surface alone (see
+ * WorldGenerator.sampleSurface), for terrain too far away to be loaded as chunks. Every cell stands
+ * for step x step columns: the ground and the water on top become flat quads, merged greedily like
+ * GreedyMesher does, and a cell higher than the one next to it gets a wall down to it, so it keeps
+ * the blocky look of the chunks with a fraction of the quads. Walls on the tile's edge hang one step
+ * further down as a skirt, which covers the cracks against a neighbor tile of another level.
+ *
+ * The surface arrays have one extra cell on every side: (cells + 2) x (cells + 2), index
+ * i + j * (cells + 2), with the tile itself at 1..cells. The result is one section.
+ */
+public final class LodMesher {
+    // Sides of a wall: x step, z step
+    private static final int[][] SIDES = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private LodMesher() {
+    }
+
+    public static ChunkMeshData mesh(int[] groundHeights, BlockType[] groundBlocks, int[] waterHeights,
+                                     BlockPalette palette, int cells, int step) {
+        GreedyMesher.PartBuilder opaque = new GreedyMesher.PartBuilder(false, 1);
+        GreedyMesher.PartBuilder translucent = new GreedyMesher.PartBuilder(true, 1);
+        ChunkMeshData data = new ChunkMeshData(1);
+        opaque.beginSection(0);
+        translucent.beginSection(0);
+
+        int stride = cells + 2;
+        int[] heights = new int[cells * cells];
+        BlockType[] tops = new BlockType[cells * cells];
+        // Ground
+        for (int j = 0; j < cells; j++) {
+            for (int i = 0; i < cells; i++) {
+                int index = i + 1 + (j + 1) * stride;
+                BlockType type = groundBlocks[index];
+                boolean drawn = type != BlockType.AIR && palette.isDrawn(type);
+                tops[i + j * cells] = drawn ? type : null;
+                heights[i + j * cells] = groundHeights[index];
+            }
+        }
+        meshTops(heights, tops, palette, cells, step, opaque, translucent, data);
+        meshWalls(groundHeights, groundBlocks, palette, cells, step, opaque, translucent, data);
+
+        // Water above the ground
+        for (int j = 0; j < cells; j++) {
+            for (int i = 0; i < cells; i++) {
+                int index = i + 1 + (j + 1) * stride;
+                boolean water = waterHeights[index] > groundHeights[index] && palette.isDrawn(BlockType.WATER);
+                tops[i + j * cells] = water ? BlockType.WATER : null;
+                heights[i + j * cells] = waterHeights[index];
+            }
+        }
+        meshTops(heights, tops, palette, cells, step, opaque, translucent, data);
+
+        opaque.flush(data);
+        translucent.flush(data);
+        return data;
+    }
+
+    // Grows each top into the largest rectangle of cells with the same block at the same height
+    private static void meshTops(int[] heights, BlockType[] tops, BlockPalette palette, int cells, int step,
+                                 GreedyMesher.PartBuilder opaque, GreedyMesher.PartBuilder translucent,
+                                 ChunkMeshData data) {
+        for (int j = 0; j < cells; j++) {
+            for (int i = 0; i < cells; ) {
+                BlockType type = tops[i + j * cells];
+                if (type == null) {
+                    i++;
+                    continue;
+                }
+                int height = heights[i + j * cells];
+                int w = 1;
+                while (i + w < cells && tops[i + w + j * cells] == type && heights[i + w + j * cells] == height) {
+                    w++;
+                }
+                int h = 1;
+                grow:
+                while (j + h < cells) {
+                    for (int k = 0; k < w; k++) {
+                        int index = i + k + (j + h) * cells;
+                        if (tops[index] != type || heights[index] != height) break grow;
+                    }
+                    h++;
+                }
+                for (int dh = 0; dh < h; dh++) {
+                    for (int dw = 0; dw < w; dw++) {
+                        tops[i + dw + (j + dh) * cells] = null;
+                    }
+                }
+                // Facing up: axis y, u = z, v = x
+                GreedyMesher.PartBuilder builder = palette.isTranslucent(type) ? translucent : opaque;
+                builder.addQuad(data, type, 0, 1, 2, 0, 1, height - 1,
+                    j * step, i * step, h * step, w * step);
+                data.quadCount++;
+                i += w;
+            }
+        }
+    }
+
+    private static void meshWalls(int[] groundHeights, BlockType[] groundBlocks, BlockPalette palette, int cells, int step,
+                                  GreedyMesher.PartBuilder opaque, GreedyMesher.PartBuilder translucent,
+                                  ChunkMeshData data) {
+        int stride = cells + 2;
+        for (int j = 0; j < cells; j++) {
+            for (int i = 0; i < cells; i++) {
+                int index = i + 1 + (j + 1) * stride;
+                BlockType type = groundBlocks[index];
+                if (type == BlockType.AIR) continue;
+                // Grass only covers the top; the sides show the dirt under it
+                BlockType side = type == BlockType.GRASS ? BlockType.DIRT : type;
+                if (!palette.isDrawn(side)) continue;
+                GreedyMesher.PartBuilder builder = palette.isTranslucent(side) ? translucent : opaque;
+                int top = groundHeights[index];
+
+                for (int[] dir : SIDES) {
+                    int ni = i + dir[0];
+                    int nj = j + dir[1];
+                    int neighbor = groundHeights[ni + 1 + (nj + 1) * stride];
+                    boolean edge = ni < 0 || nj < 0 || ni >= cells || nj >= cells;
+                    int bottom = edge ? Math.max(0, Math.min(neighbor, top) - step) : neighbor;
+                    if (bottom >= top) continue;
+
+                    int x0 = i * step;
+                    int z0 = j * step;
+                    if (dir[0] != 0) {
+                        // Facing x: u = y, v = z
+                        int slice = dir[0] > 0 ? x0 + step - 1 : x0;
+                        builder.addQuad(data, side, 0, 0, 1, 2, dir[0], slice, bottom, z0, top - bottom, step);
+                    } else {
+                        // Facing z: u = x, v = y
+                        int slice = dir[1] > 0 ? z0 + step - 1 : z0;
+                        builder.addQuad(data, side, 0, 2, 0, 1, dir[1], slice, x0, bottom, step, top - bottom);
+                    }
+                    data.quadCount++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.half.mesh;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+/**
+ * Reusable direct buffers for chunk vertex data, in power-of-two size classes from MIN_CLASS_BYTES up
+ * to one full part (ChunkMeshData.MAX_VERTICES_PER_PART vertices). The mesher writes quads straight
+ * into a leased buffer, the GL mesh keeps it as its client-side copy, and disposing the mesh on the
+ * next remesh or on unload hands it back for the next build. Buffers are only dropped (left to the
+ * GC) when more than MAX_IDLE_BYTES would sit unused. Thread-safe: meshes are built on worker threads
+ * and disposed on the render thread.
+ */
+public class MeshBufferArena {
+    public static final int MIN_CLASS_BYTES = 4096;
+    public static final int MAX_CLASS_BYTES = ChunkMeshData.MAX_VERTICES_PER_PART * ChunkMeshData.BYTES_PER_VERTEX;
+    private static final int MIN_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_CLASS_BYTES);
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_CLASS_BYTES) - MIN_CLASS_SHIFT + 1;
+    private static final long MAX_IDLE_BYTES = 32L * 1024 * 1024;
+
+    private static final MeshBufferArena instance = new MeshBufferArena();
+
+    private final ArrayDeque<ByteBuffer>[] free;
+    private long leases;
+    private long hits;
+    private long residentBytes;
+    private long idleBytes;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    MeshBufferArena() {
+        free = new ArrayDeque[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            free[i] = new ArrayDeque<>();
+        }
+    }
+
+    public static MeshBufferArena getInstance() {
+        return instance;
+    }
+
+    // Smallest buffer of at least minBytes, cleared and in the platform's byte order
+    public synchronized ByteBuffer lease(int minBytes) {
+        int sizeClass = classOf(minBytes);
+        leases++;
+        ByteBuffer buffer = free[sizeClass].poll();
+        if (buffer != null) {
+            hits++;
+            idleBytes -= buffer.capacity();
+            return buffer;
+        }
+        residentBytes += MIN_CLASS_BYTES << sizeClass;
+        return ByteBuffer.allocateDirect(MIN_CLASS_BYTES << sizeClass).order(ByteOrder.nativeOrder());
+    }
+
+    // The buffer must have come from lease and must not be touched by the caller afterwards
+    public synchronized void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (idleBytes + capacity > MAX_IDLE_BYTES) {
+            residentBytes -= capacity;
+            return;
+        }
+        buffer.clear();
+        free[classOf(capacity)].push(buffer);
+        idleBytes += capacity;
+    }
+
+    private static int classOf(int bytes) {
+        if (bytes > MAX_CLASS_BYTES) {
+            throw new IllegalArgumentException("Mesh buffers go up to " + MAX_CLASS_BYTES + " bytes, not " + bytes);
+        }
+        if (bytes <= MIN_CLASS_BYTES) return 0;
+        return 32 - Integer.numberOfLeadingZeros(bytes - 1) - MIN_CLASS_SHIFT;
+    }
+
+    // Share of leases served from the free lists, 0 before the first one
+    public synchronized float getHitRate() {
+        return leases == 0 ? 0 : (float) hits / leases;
+    }
+
+    // Bytes of every buffer the arena made and still keeps track of, leased or idle
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized long getIdleBytes() {
+        return idleBytes;
+    }
+
+    public synchronized String getStats() {
+        return leases + " leases, " + Math.round(getHitRate() * 100) + "% reused, "
+            + residentBytes / 1024 + " KB resident (" + idleBytes / 1024 + " KB idle)";
+    }
+}
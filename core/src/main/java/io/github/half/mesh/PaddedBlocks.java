@@ -0,0 +1,52 @@
+package io.github.half.mesh;
+
+import io.github.half.BlockType;
+
+import java.util.Arrays;
+
+/**
+ * Copy of one chunk's blocks plus a one-block ring around it, (sizeX + 2) x sizeY x (sizeZ + 2), so
+ * the mesher reads plain array slots instead of reaching into neighbor chunks or the generator.
+ * Below the snapshot counts as solid and above it as air. The four corner columns of the ring are
+ * never looked at by the mesher and stay air.
+ */
+public final class PaddedBlocks implements BlockAccess {
+    private final int sizeY;
+    private final int strideX;
+    private final BlockType[] blocks;
+
+    public PaddedBlocks(int sizeX, int sizeY, int sizeZ) {
+        this.sizeY = sizeY;
+        this.strideX = sizeZ + 2;
+        this.blocks = new BlockType[(sizeX + 2) * (sizeZ + 2) * sizeY];
+        Arrays.fill(blocks, BlockType.AIR);
+    }
+
+    // x from -1 to sizeX, z from -1 to sizeZ, y inside the snapshot
+    public void set(int x, int y, int z, BlockType type) {
+        blocks[index(x, y, z)] = type;
+    }
+
+    // Copies a whole column at once, sizeY entries of source starting at offset
+    public void setColumn(int x, int z, BlockType[] source, int offset) {
+        System.arraycopy(source, offset, blocks, index(x, 0, z), sizeY);
+    }
+
+    // Fills y from fromY (inclusive) to toY (exclusive) of a column with one type
+    public void fillColumn(int x, int z, int fromY, int toY, BlockType type) {
+        int base = index(x, 0, z);
+        Arrays.fill(blocks, base + fromY, base + toY, type);
+    }
+
+    @Override
+    public BlockType getBlock(int x, int y, int z) {
+        if (y < 0) return BlockType.STONE;
+        if (y >= sizeY) return BlockType.AIR;
+        return blocks[index(x, y, z)];
+    }
+
+    // Columns are contiguous in y so whole columns can be copied in one go
+    private int index(int x, int y, int z) {
+        return ((x + 1) * strideX + (z + 1)) * sizeY + y;
+    }
+}
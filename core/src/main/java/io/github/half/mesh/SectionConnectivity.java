@@ -0,0 +1,107 @@
+package io.github.half.mesh;
+
+import io.github.half.BlockType;
+
+import java.util.Arrays;
+
+/**
+ * Which faces of a section can see each other through non-opaque blocks. One flood fill per
+ * connected pocket of air (or water, glass...) records the faces it touches; every pair of those
+ * faces is then connected. The result is a 6x6 bit matrix in a long, bit from * 6 + to.
+ *
+ * Faces: 0 +x, 1 -x, 2 +y, 3 -y, 4 +z, 5 -z; a face and its opposite differ only in the lowest bit.
+ */
+public final class SectionConnectivity {
+    public static final int FACES = 6;
+    public static final long ALL = (1L << (FACES * FACES)) - 1;
+    public static final int[] DX = {1, -1, 0, 0, 0, 0};
+    public static final int[] DY = {0, 0, 1, -1, 0, 0};
+    public static final int[] DZ = {0, 0, 0, 0, 1, -1};
+
+    // Flood fill arrays kept per thread, since every remesh runs this once per section
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private static final class Scratch {
+        boolean[] seen = new boolean[0];
+        int[] stack = new int[0];
+    }
+
+    private SectionConnectivity() {
+    }
+
+    public static int opposite(int face) {
+        return face ^ 1;
+    }
+
+    public static boolean isConnected(long connectivity, int from, int to) {
+        return (connectivity & (1L << (from * FACES + to))) != 0;
+    }
+
+    // Connectivity of a section filled with a single block type: every face sees every other, or none does
+    public static long ofUniform(BlockType type) {
+        return type.isOpaque() ? 0 : ALL;
+    }
+
+    // Connectivity of the sizeX x height x sizeZ box of blocks starting at y = originY
+    public static long compute(BlockAccess blocks, int sizeX, int sizeZ, int originY, int height) {
+        int cells = sizeX * height * sizeZ;
+        Scratch scratch = SCRATCH.get();
+        if (scratch.seen.length < cells) {
+            scratch.seen = new boolean[cells];
+            scratch.stack = new int[cells];
+        } else {
+            Arrays.fill(scratch.seen, 0, cells, false);
+        }
+        boolean[] seen = scratch.seen;
+        int[] stack = scratch.stack;
+        long connectivity = 0;
+
+        for (int start = 0; start < cells; start++) {
+            if (seen[start] || isOpaque(blocks, start, sizeX, sizeZ, originY)) continue;
+
+            // Flood one pocket and collect the faces it reaches
+            int faces = 0;
+            int top = 0;
+            stack[top++] = start;
+            seen[start] = true;
+            while (top > 0) {
+                int cell = stack[--top];
+                int x = cell % sizeX;
+                int z = (cell / sizeX) % sizeZ;
+                int y = cell / (sizeX * sizeZ);
+                if (x == sizeX - 1) faces |= 1;
+                if (x == 0) faces |= 1 << 1;
+                if (y == height - 1) faces |= 1 << 2;
+                if (y == 0) faces |= 1 << 3;
+                if (z == sizeZ - 1) faces |= 1 << 4;
+                if (z == 0) faces |= 1 << 5;
+                for (int face = 0; face < FACES; face++) {
+                    int nx = x + DX[face];
+                    int ny = y + DY[face];
+                    int nz = z + DZ[face];
+                    if (nx < 0 || nx >= sizeX || ny < 0 || ny >= height || nz < 0 || nz >= sizeZ) continue;
+                    int next = nx + (nz + ny * sizeZ) * sizeX;
+                    if (seen[next] || isOpaque(blocks, next, sizeX, sizeZ, originY)) continue;
+                    seen[next] = true;
+                    stack[top++] = next;
+                }
+            }
+
+            for (int from = 0; from < FACES; from++) {
+                if ((faces & (1 << from)) == 0) continue;
+                for (int to = 0; to < FACES; to++) {
+                    if ((faces & (1 << to)) != 0) {
+                        connectivity |= 1L << (from * FACES + to);
+                    }
+                }
+            }
+            if (connectivity == ALL) break;
+        }
+        return connectivity;
+    }
+
+    private static boolean isOpaque(BlockAccess blocks, int cell, int sizeX, int sizeZ, int originY) {
+        BlockType type = blocks.getBlock(cell % sizeX, originY + cell / (sizeX * sizeZ), (cell / sizeX) % sizeZ);
+        return type.isOpaque();
+    }
+}
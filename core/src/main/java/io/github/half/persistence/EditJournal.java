@@ -0,0 +1,245 @@
+package io.github.half.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only log of block edits. Every edit is one packed long (x, z, y, block ordinal) appended
+ * and fsynced on a background thread, so the frame thread only pays for a queue insert.
+ *
+ * Records stay "live" until the chunk they touch has been written to the region store after the
+ * edit; checkpoints rewrite the file with only the live records (an empty file once everything is
+ * flushed). On startup the existing file is replayed on top of generated or persisted chunks.
+ */
+public class EditJournal {
+    private static final int BATCH_SIZE = 256;
+    private static final long CHECKPOINT_INTERVAL_MS = 5000;
+
+    private final Path path;
+    private final Object fileLock = new Object();
+    private FileChannel channel;
+    private final Thread writerThread;
+    private final LinkedBlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(BATCH_SIZE * 8);
+
+    // Records not yet covered by a region save, per chunk, plus the sequence of the newest one
+    private final Map<Long, ChunkEdits> live = new HashMap<>();
+    // Edits read at startup that still have to be applied to their chunk when it loads
+    private final Map<Long, long[]> replay = new HashMap<>();
+    private long sequence;
+    private volatile boolean checkpointRequested;
+    private volatile boolean running = true;
+
+    private static final class ChunkEdits {
+        final List<Long> records = new ArrayList<>();
+        long lastSequence;
+    }
+
+    public EditJournal(Path path) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.getParent());
+        readExisting();
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        writerThread = new Thread(this::writeLoop, "edit-journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // Record layout: x (24 bits, signed) | z (24 bits, signed) | y (8 bits) | block ordinal (8 bits)
+    public static long pack(int x, int y, int z, int ordinal) {
+        return ((long) (x & 0xFFFFFF) << 40) | ((long) (z & 0xFFFFFF) << 16) | ((y & 0xFF) << 8) | (ordinal & 0xFF);
+    }
+
+    public static int unpackX(long record) {
+        return (int) (record >> 40);
+    }
+
+    public static int unpackZ(long record) {
+        return (int) (record << 24 >> 40);
+    }
+
+    public static int unpackY(long record) {
+        return (int) ((record >>> 8) & 0xFF);
+    }
+
+    public static int unpackOrdinal(long record) {
+        return (int) (record & 0xFF);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static long chunkKeyOf(long record) {
+        return chunkKey(Math.floorDiv(unpackX(record), 16), Math.floorDiv(unpackZ(record), 16));
+    }
+
+    private void readExisting() throws IOException {
+        if (!Files.exists(path)) return;
+
+        Map<Long, List<Long>> byChunk = new HashMap<>();
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            // A torn last record from a crash is simply ignored
+            ByteBuffer buffer = ByteBuffer.allocate((int) (in.size() / 8 * 8));
+            while (buffer.hasRemaining() && in.read(buffer) > 0) {
+                // keep reading
+            }
+            buffer.flip();
+            while (buffer.remaining() >= 8) {
+                long record = buffer.getLong();
+                long key = chunkKeyOf(record);
+                byChunk.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+                ChunkEdits edits = live.computeIfAbsent(key, k -> new ChunkEdits());
+                edits.records.add(record);
+                edits.lastSequence = ++sequence;
+            }
+        }
+        for (Map.Entry<Long, List<Long>> entry : byChunk.entrySet()) {
+            List<Long> records = entry.getValue();
+            long[] packed = new long[records.size()];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = records.get(i);
+            }
+            replay.put(entry.getKey(), packed);
+        }
+        if (!replay.isEmpty()) {
+            System.out.println("Edit journal: replaying " + sequence + " edits in " + replay.size() + " chunks");
+        }
+    }
+
+    // Called from the frame thread; never blocks on I/O
+    public void append(int x, int y, int z, int ordinal) {
+        long record = pack(x, y, z, ordinal);
+        synchronized (this) {
+            ChunkEdits edits = live.computeIfAbsent(chunkKeyOf(record), k -> new ChunkEdits());
+            edits.records.add(record);
+            edits.lastSequence = ++sequence;
+            queue.add(record);
+        }
+    }
+
+    // Sequence of the newest edit so far; capture it before serializing a chunk for saving
+    public synchronized long currentSequence() {
+        return sequence;
+    }
+
+    // Edits from the previous session for this chunk, in order, or null. Each chunk gets them once.
+    public synchronized long[] takeReplay(int chunkX, int chunkZ) {
+        return replay.remove(chunkKey(chunkX, chunkZ));
+    }
+
+    // The chunk has been durably saved with every edit up to savedSequence
+    public void markFlushed(int chunkX, int chunkZ, long savedSequence) {
+        synchronized (this) {
+            long key = chunkKey(chunkX, chunkZ);
+            ChunkEdits edits = live.get(key);
+            if (edits == null || edits.lastSequence > savedSequence || replay.containsKey(key)) {
+                return;
+            }
+            live.remove(key);
+        }
+        checkpointRequested = true;
+    }
+
+    private void writeLoop() {
+        long lastCheckpoint = System.currentTimeMillis();
+        List<Long> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Long first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    writeBatch(batch);
+                    batch.clear();
+                }
+                long now = System.currentTimeMillis();
+                if (checkpointRequested && now - lastCheckpoint >= CHECKPOINT_INTERVAL_MS) {
+                    checkpoint();
+                    lastCheckpoint = now;
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException e) {
+                System.err.println("Edit journal write failed: " + e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Long> records) throws IOException {
+        writeBuffer.clear();
+        for (Long record : records) {
+            writeBuffer.putLong(record);
+        }
+        writeBuffer.flip();
+        synchronized (fileLock) {
+            while (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    // Rewrite the journal with only the live records, then swap it in atomically
+    private void checkpoint() throws IOException {
+        checkpointRequested = false;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        synchronized (fileLock) {
+            List<Long> keep = new ArrayList<>();
+            synchronized (this) {
+                // Everything still queued is also in the live set, so it must not be written twice
+                queue.clear();
+                for (ChunkEdits edits : live.values()) {
+                    keep.addAll(edits.records);
+                }
+            }
+
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(Math.max(8, keep.size() * 8));
+                for (Long record : keep) {
+                    buffer.putLong(record);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+
+            channel.close();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+    }
+
+    // Drain pending appends and leave only records that never reached a region file
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(10000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            checkpoint();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close edit journal: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package io.github.half.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * One file holding a 32x32 area of chunks.
+ *
+ * Layout: a one-sector header of 1024 ints (sector offset << 8 | sector count, 0 = absent),
+ * followed by 4 KB sectors. Each chunk payload starts on a sector boundary as
+ * [int length][byte compression][deflated bytes]. Reads go through a read-only mapping of the file.
+ */
+public class RegionFile {
+    public static final int REGION_SIZE = 32;
+    public static final int SECTOR_SIZE = 4096;
+
+    private static final int ENTRY_COUNT = REGION_SIZE * REGION_SIZE;
+    private static final int HEADER_SECTORS = 1;
+    private static final int PAYLOAD_HEADER = 5;
+    private static final int MAX_SECTORS_PER_CHUNK = 255;
+    private static final byte COMPRESSION_DEFLATE = 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int[] offsets = new int[ENTRY_COUNT];
+    private final BitSet usedSectors = new BitSet();
+    private int sectorCount;
+
+    private MappedByteBuffer mapped;
+    private long mappedSize;
+
+    public RegionFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() < (long) HEADER_SECTORS * SECTOR_SIZE) {
+            channel.write(ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE), 0);
+        }
+        sectorCount = (int) ((channel.size() + SECTOR_SIZE - 1) / SECTOR_SIZE);
+        usedSectors.set(0, HEADER_SECTORS);
+
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_COUNT * 4);
+        channel.read(header, 0);
+        header.flip();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            int entry = header.getInt();
+            int start = entry >>> 8;
+            int count = entry & 0xFF;
+            // Drop entries that point outside the file instead of failing the whole region
+            if (entry != 0 && start >= HEADER_SECTORS && start + count <= sectorCount) {
+                offsets[i] = entry;
+                usedSectors.set(start, start + count);
+            }
+        }
+    }
+
+    // Stored chunks and the bytes their sectors take, read from the header without opening the region
+    public static Usage readUsage(Path path) throws IOException {
+        Usage usage = new Usage();
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long sectorCount = (in.size() + SECTOR_SIZE - 1) / SECTOR_SIZE;
+            ByteBuffer header = ByteBuffer.allocate(ENTRY_COUNT * 4);
+            while (header.hasRemaining() && in.read(header) > 0) {
+                // keep reading
+            }
+            header.flip();
+            while (header.remaining() >= 4) {
+                int entry = header.getInt();
+                int start = entry >>> 8;
+                int count = entry & 0xFF;
+                // Same validity rule as the constructor
+                if (entry != 0 && start >= HEADER_SECTORS && start + count <= sectorCount) {
+                    usage.add(count);
+                }
+            }
+        }
+        return usage;
+    }
+
+    public synchronized Usage getUsage() {
+        Usage usage = new Usage();
+        for (int entry : offsets) {
+            if (entry != 0) usage.add(entry & 0xFF);
+        }
+        return usage;
+    }
+
+    public static final class Usage {
+        public int chunks;
+        public long bytes;
+
+        void add(int sectors) {
+            chunks++;
+            bytes += (long) sectors * SECTOR_SIZE;
+        }
+    }
+
+    private static int index(int localX, int localZ) {
+        return localX + localZ * REGION_SIZE;
+    }
+
+    public synchronized boolean hasChunk(int localX, int localZ) {
+        return offsets[index(localX, localZ)] != 0;
+    }
+
+    // Returns the decompressed payload, or null when the chunk was never stored
+    public synchronized byte[] read(int localX, int localZ) throws IOException {
+        int entry = offsets[index(localX, localZ)];
+        if (entry == 0) {
+            return null;
+        }
+        long start = (long) (entry >>> 8) * SECTOR_SIZE;
+        long end = start + (long) (entry & 0xFF) * SECTOR_SIZE;
+
+        ByteBuffer view = mapping(end).duplicate();
+        view.position((int) start);
+        int length = view.getInt();
+        byte compression = view.get();
+        if (length <= 0 || start + PAYLOAD_HEADER + length > end || compression != COMPRESSION_DEFLATE) {
+            throw new IOException("Corrupt chunk entry " + localX + "," + localZ + " in " + path);
+        }
+        byte[] compressed = new byte[length];
+        view.get(compressed);
+        return Compression.inflate(compressed);
+    }
+
+    public void write(int localX, int localZ, byte[] data) throws IOException {
+        writeCompressed(localX, localZ, Compression.deflate(data));
+    }
+
+    // Same as write() for a payload that is already deflated with Compression.deflate
+    public synchronized void writeCompressed(int localX, int localZ, byte[] compressed) throws IOException {
+        int sectorsNeeded = (PAYLOAD_HEADER + compressed.length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        if (sectorsNeeded > MAX_SECTORS_PER_CHUNK) {
+            throw new IOException("Chunk payload too large (" + compressed.length + " bytes)");
+        }
+
+        int index = index(localX, localZ);
+        int oldEntry = offsets[index];
+
+        // Never overwrite the run the header still points at: take a fresh run (the old one is still
+        // marked used), make the payload durable, swing the header, and only then release the old run.
+        // A crash at any point leaves the header on either the complete old payload or the complete new one.
+        int start = findFreeRun(sectorsNeeded);
+        usedSectors.set(start, start + sectorsNeeded);
+        sectorCount = Math.max(sectorCount, start + sectorsNeeded);
+
+        ByteBuffer payload = ByteBuffer.allocate(sectorsNeeded * SECTOR_SIZE);
+        payload.putInt(compressed.length);
+        payload.put(COMPRESSION_DEFLATE);
+        payload.put(compressed);
+        payload.rewind();
+        channel.write(payload, (long) start * SECTOR_SIZE);
+        channel.force(false);
+
+        setEntry(index, (start << 8) | sectorsNeeded);
+        // The caller treats a returned write as durable (the journal drops the edits it covers)
+        channel.force(false);
+
+        if (oldEntry != 0) {
+            int oldStart = oldEntry >>> 8;
+            usedSectors.clear(oldStart, oldStart + (oldEntry & 0xFF));
+        }
+    }
+
+    private int findFreeRun(int length) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (start < sectorCount) {
+            int end = usedSectors.nextSetBit(start);
+            if (end < 0 || end - start >= length) {
+                return start;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+        return sectorCount;
+    }
+
+    private void setEntry(int index, int entry) throws IOException {
+        offsets[index] = entry;
+        ByteBuffer value = ByteBuffer.allocate(4);
+        value.putInt(entry);
+        value.flip();
+        channel.write(value, (long) index * 4);
+    }
+
+    private MappedByteBuffer mapping(long requiredSize) throws IOException {
+        if (mapped == null || mappedSize < requiredSize) {
+            mappedSize = channel.size();
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, mappedSize);
+        }
+        return mapped;
+    }
+
+    // Sectors inside the file that no chunk points at any more
+    public synchronized int getFreeSectorCount() {
+        return sectorCount - usedSectors.cardinality();
+    }
+
+    public synchronized void close() throws IOException {
+        try {
+            if (getFreeSectorCount() > 0) {
+                compact();
+            }
+        } finally {
+            mapped = null;
+            channel.close();
+        }
+    }
+
+    // Rewrite every live payload back to back into a fresh file and swap it in
+    private void compact() throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE);
+            int next = HEADER_SECTORS;
+
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                int entry = offsets[i];
+                if (entry == 0) {
+                    header.putInt(0);
+                    continue;
+                }
+                int count = entry & 0xFF;
+                ByteBuffer payload = ByteBuffer.allocate(count * SECTOR_SIZE);
+                channel.read(payload, (long) (entry >>> 8) * SECTOR_SIZE);
+                payload.flip();
+                out.write(payload, (long) next * SECTOR_SIZE);
+                header.putInt((next << 8) | count);
+                next += count;
+            }
+            header.rewind();
+            out.write(header, 0);
+            // The rename below must never expose a file whose contents are not on disk yet
+            out.force(true);
+        }
+
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Some platforms refuse to replace a file that is still mapped; the fragmented file stays valid
+            System.err.println("Region compaction skipped for " + path + ": " + e.getMessage());
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
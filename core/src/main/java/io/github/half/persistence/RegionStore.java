@@ -0,0 +1,191 @@
+package io.github.half.persistence;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chunk persistence backed by {@link RegionFile}s in one directory. Saves are compressed and written
+ * on a single background thread; until a save lands, loads are served from the pending payload so a
+ * chunk that is unloaded and immediately revisited never reads stale data.
+ */
+public class RegionStore {
+    private final Path directory;
+    private final Map<Long, RegionFile> regions = new HashMap<>();
+    private final Map<Long, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final ExecutorService ioThread;
+    private volatile boolean closed;
+    // Chunks in the region files and the bytes their sectors take; atomics so stats never wait on a write
+    private final AtomicInteger storedChunks = new AtomicInteger();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    private static final class PendingWrite {
+        final byte[] data;
+        final boolean compressed; // data is already deflated
+        final Runnable onWritten;
+
+        PendingWrite(byte[] data, boolean compressed, Runnable onWritten) {
+            this.data = data;
+            this.compressed = compressed;
+            this.onWritten = onWritten;
+        }
+    }
+
+    public RegionStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.ioThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "region-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        readUsage();
+    }
+
+    // Only the headers are read; regions are opened when a chunk in them is needed
+    private void readUsage() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "r.*.vxr")) {
+            for (Path file : files) {
+                RegionFile.Usage usage = RegionFile.readUsage(file);
+                storedChunks.addAndGet(usage.chunks);
+                storedBytes.addAndGet(usage.bytes);
+            }
+        }
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    // Returns the stored payload for a chunk, or null when it has never been saved
+    public byte[] load(int chunkX, int chunkZ) throws IOException {
+        PendingWrite pending = pendingWrites.get(key(chunkX, chunkZ));
+        if (pending != null) {
+            return pending.compressed ? Compression.inflate(pending.data) : pending.data;
+        }
+        synchronized (this) {
+            if (closed) return null;
+            RegionFile region = getRegion(chunkX, chunkZ, false);
+            if (region == null) {
+                return null;
+            }
+            return region.read(Math.floorMod(chunkX, RegionFile.REGION_SIZE), Math.floorMod(chunkZ, RegionFile.REGION_SIZE));
+        }
+    }
+
+    // Queue a chunk payload for writing; returns immediately
+    public void save(int chunkX, int chunkZ, byte[] data) {
+        save(chunkX, chunkZ, data, null);
+    }
+
+    // Same as save(), running onWritten on the I/O thread once this payload is in the region file
+    public void save(int chunkX, int chunkZ, byte[] data, Runnable onWritten) {
+        enqueue(chunkX, chunkZ, new PendingWrite(data, false, onWritten));
+    }
+
+    // Same as save() for a payload already deflated with Compression.deflate; it is written as is
+    public void saveCompressed(int chunkX, int chunkZ, byte[] compressed, Runnable onWritten) {
+        enqueue(chunkX, chunkZ, new PendingWrite(compressed, true, onWritten));
+    }
+
+    private void enqueue(int chunkX, int chunkZ, PendingWrite write) {
+        if (closed) return;
+        long key = key(chunkX, chunkZ);
+        pendingWrites.put(key, write);
+        try {
+            ioThread.execute(() -> {
+                // A newer save for the same chunk may have replaced this payload, write whatever is current.
+                // Its callback supersedes the older ones since it covers everything they did.
+                PendingWrite current = pendingWrites.get(key);
+                if (current == null) return;
+                try {
+                    write(chunkX, chunkZ, current);
+                    if (current.onWritten != null) {
+                        current.onWritten.run();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Failed to save chunk (" + chunkX + ", " + chunkZ + "): " + e.getMessage());
+                } finally {
+                    pendingWrites.remove(key, current);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingWrites.remove(key, write);
+            System.err.println("Chunk (" + chunkX + ", " + chunkZ + ") not saved, store is closing");
+        }
+    }
+
+    private synchronized void write(int chunkX, int chunkZ, PendingWrite write) throws IOException {
+        RegionFile region = getRegion(chunkX, chunkZ, true);
+        int localX = Math.floorMod(chunkX, RegionFile.REGION_SIZE);
+        int localZ = Math.floorMod(chunkZ, RegionFile.REGION_SIZE);
+        RegionFile.Usage before = region.getUsage();
+        if (write.compressed) {
+            region.writeCompressed(localX, localZ, write.data);
+        } else {
+            region.write(localX, localZ, write.data);
+        }
+        RegionFile.Usage after = region.getUsage();
+        storedChunks.addAndGet(after.chunks - before.chunks);
+        storedBytes.addAndGet(after.bytes - before.bytes);
+    }
+
+    public int getStoredChunkCount() {
+        return storedChunks.get();
+    }
+
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    private RegionFile getRegion(int chunkX, int chunkZ, boolean create) throws IOException {
+        int regionX = Math.floorDiv(chunkX, RegionFile.REGION_SIZE);
+        int regionZ = Math.floorDiv(chunkZ, RegionFile.REGION_SIZE);
+        long key = key(regionX, regionZ);
+
+        RegionFile region = regions.get(key);
+        if (region == null) {
+            Path file = directory.resolve("r." + regionX + "." + regionZ + ".vxr");
+            if (!create && !Files.exists(file)) {
+                return null;
+            }
+            region = new RegionFile(file);
+            regions.put(key, region);
+        }
+        return region;
+    }
+
+    // Flush outstanding saves, then close (and compact) every open region
+    public void close() {
+        closed = true;
+        ioThread.shutdown();
+        try {
+            if (!ioThread.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("Timed out waiting for chunk saves to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            for (RegionFile region : regions.values()) {
+                try {
+                    region.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close region file: " + e.getMessage());
+                }
+            }
+            regions.clear();
+        }
+    }
+}
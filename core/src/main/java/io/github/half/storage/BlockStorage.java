@@ -0,0 +1,18 @@
+package io.github.half.storage;
+
+import io.github.half.BlockType;
+
+// Backing store for a box of voxels. Coordinates are always local to the box and in range,
+// bounds checks are the caller's job (see Chunk.getBlockAt / setBlockAt).
+public interface BlockStorage {
+    BlockType get(int x, int y, int z);
+
+    void set(int x, int y, int z, BlockType blockType);
+
+    // Approximate heap/native bytes held by this storage, used for memory accounting
+    long getMemoryUsage();
+
+    // Give back any pooled memory; the storage must not be used afterwards
+    default void release() {
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.half.storage;
+
+import io.github.half.BlockType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A 16x16x16 slice of a chunk. Sections that hold a single block type (open ocean, the sky above
+ * the terrain, solid stone) are kept as one value and only get real storage on the first write
+ * that makes them non-uniform.
+ */
+public class ChunkSection {
+    public static final int SIZE = 16;
+
+    private static volatile StorageBackend backend = StorageBackend.fromSystemProperty();
+
+    // Non-null while the section is uniform. Written after storage, so readers that see null
+    // are guaranteed to also see the materialized storage.
+    private volatile BlockType uniform;
+    private volatile BlockStorage storage;
+
+    public ChunkSection() {
+        this(BlockType.AIR);
+    }
+
+    public ChunkSection(BlockType fill) {
+        this.uniform = fill;
+    }
+
+    public BlockType get(int x, int y, int z) {
+        BlockType value = uniform;
+        if (value != null) {
+            return value;
+        }
+        BlockStorage current = storage;
+        if (current != null) {
+            return current.get(x, y, z);
+        }
+        // trim() collapsed the section between the two reads
+        return uniform;
+    }
+
+    public synchronized void set(int x, int y, int z, BlockType blockType) {
+        if (blockType == null) blockType = BlockType.AIR;
+        BlockType value = uniform;
+        if (value != null) {
+            if (value == blockType) return;
+            storage = backend.createSection(value);
+            storage.set(x, y, z, blockType);
+            uniform = null;
+            return;
+        }
+        storage.set(x, y, z, blockType);
+    }
+
+    public boolean isUniform() {
+        return uniform != null;
+    }
+
+    // The single block type of a uniform section, or null when the section has real storage
+    public BlockType getUniformType() {
+        return uniform;
+    }
+
+    public boolean isEmpty() {
+        return uniform == BlockType.AIR;
+    }
+
+    // Collapse back to a single value if every voxel turned out to be the same type.
+    // Called once generation is done, since generation writes voxel by voxel.
+    public synchronized boolean trim() {
+        if (uniform != null) return true;
+        BlockType first = storage.get(0, 0, 0);
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    if (storage.get(x, y, z) != first) {
+                        return false;
+                    }
+                }
+            }
+        }
+        BlockStorage old = storage;
+        uniform = first;
+        storage = null;
+        old.release();
+        return true;
+    }
+
+    // Return pooled storage when the chunk is unloaded. Late readers just see air.
+    public synchronized void release() {
+        BlockStorage old = storage;
+        if (old == null) return;
+        uniform = BlockType.AIR;
+        storage = null;
+        old.release();
+    }
+
+    public static StorageBackend getStorageBackend() {
+        return backend;
+    }
+
+    public static void setStorageBackend(StorageBackend storageBackend) {
+        backend = storageBackend;
+    }
+
+    // Serialized form: a uniform flag followed by either one ordinal or SIZE^3 ordinals in y, z, x order
+    public void write(DataOutput out) throws IOException {
+        BlockType value = uniform;
+        BlockStorage current = storage;
+        if (value != null || current == null) {
+            out.writeBoolean(true);
+            out.writeByte((value != null ? value : BlockType.AIR).ordinal());
+            return;
+        }
+        out.writeBoolean(false);
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    out.writeByte(current.get(x, y, z).ordinal());
+                }
+            }
+        }
+    }
+
+    public static ChunkSection read(DataInput in) throws IOException {
+        BlockType[] types = BlockType.values();
+        if (in.readBoolean()) {
+            return new ChunkSection(types[in.readUnsignedByte()]);
+        }
+        ChunkSection section = new ChunkSection();
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    section.set(x, y, z, types[in.readUnsignedByte()]);
+                }
+            }
+        }
+        section.trim();
+        return section;
+    }
+
+    public long getMemoryUsage() {
+        BlockStorage current = storage;
+        return 32L + (uniform == null && current != null ? current.getMemoryUsage() : 0L);
+    }
+}
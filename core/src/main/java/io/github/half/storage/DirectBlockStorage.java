@@ -0,0 +1,67 @@
+package io.github.half.storage;
+
+import io.github.half.BlockType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Off-heap block storage: one byte (the block ordinal) per voxel in a pooled direct buffer. Costs
+ * more bytes than the palette storage for mixed sections but keeps block data out of the Java heap
+ * entirely; the buffer goes back to the pool when the owning chunk is unloaded.
+ */
+public class DirectBlockStorage implements BlockStorage {
+    private static final BlockType[] BLOCK_TYPES = BlockType.values();
+
+    private final int sizeX, sizeZ;
+    private final DirectBufferPool pool;
+    private volatile ByteBuffer buffer;
+
+    public DirectBlockStorage(int sizeX, int sizeY, int sizeZ, BlockType fill, DirectBufferPool pool) {
+        if (sizeX * sizeY * sizeZ > pool.getSlotSize()) {
+            throw new IllegalArgumentException("Pool slots of " + pool.getSlotSize() + " bytes are too small");
+        }
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.pool = pool;
+        this.buffer = pool.acquire();
+
+        // Recycled slices hold the previous owner's blocks
+        byte value = (byte) fill.ordinal();
+        for (int i = 0, n = sizeX * sizeY * sizeZ; i < n; i++) {
+            buffer.put(i, value);
+        }
+    }
+
+    private int indexOf(int x, int y, int z) {
+        return (y * sizeZ + z) * sizeX + x;
+    }
+
+    @Override
+    public BlockType get(int x, int y, int z) {
+        ByteBuffer current = buffer;
+        // Released by an unloading chunk while a late reader still held this storage
+        if (current == null) return BlockType.AIR;
+        return BLOCK_TYPES[current.get(indexOf(x, y, z))];
+    }
+
+    @Override
+    public void set(int x, int y, int z, BlockType blockType) {
+        ByteBuffer current = buffer;
+        if (current == null) return;
+        current.put(indexOf(x, y, z), (byte) blockType.ordinal());
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        // Native bytes are what matter here; the wrapper itself is a few dozen heap bytes
+        return pool.getSlotSize() + 48L;
+    }
+
+    @Override
+    public synchronized void release() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.half.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+/**
+ * Hands out fixed-size slices of large direct buffers. Slices are recycled instead of freed, so
+ * the native memory is allocated once per slab and never shows up in the GC's old generation.
+ */
+public class DirectBufferPool {
+    private static final int SLOTS_PER_SLAB = 64;
+
+    private final int slotSize;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private int slabCount;
+    private int inUse;
+
+    public DirectBufferPool(int slotSize) {
+        this.slotSize = slotSize;
+    }
+
+    public synchronized ByteBuffer acquire() {
+        if (free.isEmpty()) {
+            allocateSlab();
+        }
+        inUse++;
+        return free.pop();
+    }
+
+    // The buffer must not be touched by the caller afterwards
+    public synchronized void release(ByteBuffer buffer) {
+        inUse--;
+        free.push(buffer);
+    }
+
+    private void allocateSlab() {
+        ByteBuffer slab = ByteBuffer.allocateDirect(slotSize * SLOTS_PER_SLAB).order(ByteOrder.nativeOrder());
+        for (int i = 0; i < SLOTS_PER_SLAB; i++) {
+            slab.limit((i + 1) * slotSize);
+            slab.position(i * slotSize);
+            free.push(slab.slice());
+        }
+        slabCount++;
+    }
+
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    public synchronized int getSlotsInUse() {
+        return inUse;
+    }
+
+    // Native bytes reserved by this pool, used or not
+    public synchronized long getReservedBytes() {
+        return (long) slabCount * SLOTS_PER_SLAB * slotSize;
+    }
+}
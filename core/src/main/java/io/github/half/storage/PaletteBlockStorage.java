@@ -0,0 +1,148 @@
+package io.github.half.storage;
+
+import io.github.half.BlockType;
+
+/**
+ * Palette compressed block storage. Each voxel holds a small index into a per-storage palette of
+ * {@link BlockType}s, packed into a long[] with as few bits as the palette needs. The bit width
+ * grows (1, 2, 3, 4, 5...) as new block types are written, so a chunk that only contains stone,
+ * dirt, grass, air and water costs 3 bits per voxel instead of a 4-8 byte object reference.
+ */
+public class PaletteBlockStorage implements BlockStorage {
+    private static final BlockType[] BLOCK_TYPES = BlockType.values();
+
+    private final int sizeX, sizeY, sizeZ;
+    private final int volume;
+
+    // Reverse lookup ordinal -> palette index (-1 when absent). Only touched by writers.
+    private final int[] paletteIndex;
+    private int paletteSize;
+
+    // Everything a reader needs is published together so a resize can never be observed half done
+    private volatile State state;
+
+    private static final class State {
+        final int bits;
+        final int valuesPerLong;
+        final long mask;
+        final long[] data;
+        final BlockType[] palette;
+
+        State(int bits, int volume, BlockType[] palette) {
+            this.bits = bits;
+            this.valuesPerLong = 64 / bits;
+            this.mask = (1L << bits) - 1;
+            this.data = new long[(volume + valuesPerLong - 1) / valuesPerLong];
+            this.palette = palette;
+        }
+
+        State(State other, BlockType[] palette) {
+            this.bits = other.bits;
+            this.valuesPerLong = other.valuesPerLong;
+            this.mask = other.mask;
+            this.data = other.data;
+            this.palette = palette;
+        }
+
+        int read(int index) {
+            int cell = index / valuesPerLong;
+            int shift = (index - cell * valuesPerLong) * bits;
+            return (int) ((data[cell] >>> shift) & mask);
+        }
+
+        void write(int index, int value) {
+            int cell = index / valuesPerLong;
+            int shift = (index - cell * valuesPerLong) * bits;
+            data[cell] = (data[cell] & ~(mask << shift)) | ((long) value << shift);
+        }
+    }
+
+    public PaletteBlockStorage(int sizeX, int sizeY, int sizeZ) {
+        this(sizeX, sizeY, sizeZ, BlockType.AIR);
+    }
+
+    public PaletteBlockStorage(int sizeX, int sizeY, int sizeZ, BlockType fill) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.volume = sizeX * sizeY * sizeZ;
+        this.paletteIndex = new int[BLOCK_TYPES.length];
+        java.util.Arrays.fill(paletteIndex, -1);
+
+        // Index 0 is the fill value, so the zeroed data array already means "all fill"
+        BlockType[] palette = new BlockType[2];
+        palette[0] = fill;
+        paletteIndex[fill.ordinal()] = 0;
+        paletteSize = 1;
+        state = new State(1, volume, palette);
+    }
+
+    private int indexOf(int x, int y, int z) {
+        return (y * sizeZ + z) * sizeX + x;
+    }
+
+    @Override
+    public BlockType get(int x, int y, int z) {
+        State s = state;
+        BlockType blockType = s.palette[s.read(indexOf(x, y, z))];
+        // A reader racing a palette append can briefly see an index before its entry
+        return blockType != null ? blockType : BlockType.AIR;
+    }
+
+    @Override
+    public synchronized void set(int x, int y, int z, BlockType blockType) {
+        if (blockType == null) blockType = BlockType.AIR;
+        int paletteId = paletteIndex[blockType.ordinal()];
+        if (paletteId < 0) {
+            paletteId = addToPalette(blockType);
+        }
+        state.write(indexOf(x, y, z), paletteId);
+    }
+
+    private int addToPalette(BlockType blockType) {
+        State s = state;
+        int id = paletteSize++;
+        paletteIndex[blockType.ordinal()] = id;
+
+        if (id < s.palette.length) {
+            BlockType[] palette = s.palette.clone();
+            palette[id] = blockType;
+            state = new State(s, palette);
+        } else {
+            resize(s, blockType, id);
+        }
+        return id;
+    }
+
+    // Re-pack every voxel with one more bit per entry
+    private void resize(State old, BlockType added, int id) {
+        int bits = old.bits + 1;
+        BlockType[] palette = new BlockType[1 << bits];
+        System.arraycopy(old.palette, 0, palette, 0, old.palette.length);
+        palette[id] = added;
+
+        State grown = new State(bits, volume, palette);
+        for (int i = 0; i < volume; i++) {
+            int value = old.read(i);
+            if (value != 0) {
+                grown.write(i, value);
+            }
+        }
+        state = grown;
+    }
+
+    public int getBitsPerEntry() {
+        return state.bits;
+    }
+
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        State s = state;
+        // data + palette + reverse lookup, plus rough object headers
+        return 16L + s.data.length * 8L + 16L + s.palette.length * 4L + 16L + paletteIndex.length * 4L + 48L;
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.half.storage;
+
+import io.github.half.BlockType;
+
+// Which BlockStorage implementation new non-uniform chunk sections get.
+// Selected with -Dvoxelisle.storage=palette|direct, palette being the default.
+public enum StorageBackend {
+    PALETTE,
+    DIRECT;
+
+    private static final DirectBufferPool SECTION_POOL =
+        new DirectBufferPool(ChunkSection.SIZE * ChunkSection.SIZE * ChunkSection.SIZE);
+
+    public BlockStorage createSection(BlockType fill) {
+        int size = ChunkSection.SIZE;
+        if (this == DIRECT) {
+            return new DirectBlockStorage(size, size, size, fill, SECTION_POOL);
+        }
+        return new PaletteBlockStorage(size, size, size, fill);
+    }
+
+    public static DirectBufferPool getSectionPool() {
+        return SECTION_POOL;
+    }
+
+    public static StorageBackend fromSystemProperty() {
+        String value = System.getProperty("voxelisle.storage", "palette");
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown storage backend '" + value + "', using palette storage");
+            return PALETTE;
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package io.github.half.wfc;
 import io.github.half.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import io.github.half.wfc.constraints.*;
 
 public class IslandWorldGenerator extends WorldGenerator {
     private static final float ISLAND_FREQUENCY = 0.003f;
+    private static final float ARCHIPELAGO_FREQUENCY = 0.0008f;
+    private static final float SHAPE_FREQUENCY = 0.01f;
     private static final float OCEAN_BIAS = 0.7f;
     private static final float ISLAND_SIZE_VARIANCE = 2.5f;
 
-    // Safety limits
+    // Safety limits, per voxel and per column. Both only depend on the column itself, so they bound
+    // the cost of a failing constraint set without making the output depend on generation order.
     private static final int MAX_WFC_ATTEMPTS = 5;
-    private static final long MAX_WFC_TIME_MS = 10; // 10ms timeout per solve
-    private static final int MAX_CONSTRAINT_FAILURES = 100;
+    private static final int MAX_WFC_FAILURES_PER_COLUMN = 3;
+    // WFC only shapes the surface, from this height up
+    private static final int WFC_MIN_Y = 25;
+
+    // Feature id for the per-position WFC solver seeds
+    private static final int FEATURE_WFC = 200;
 
     private WFCSolver wfcSolver;
     private Set<Constraint> worldConstraints;
@@ -19,12 +27,13 @@ public class IslandWorldGenerator extends WorldGenerator {
     private PerlinNoise islandShapeNoise;
     private PerlinNoise archipelagoNoise;
 
-    // Safety counters
-    private int constraintFailureCount = 0;
+    // Failures across the world are only counted. Turning WFC off globally after N of them made the
+    // output depend on which chunks happened to generate first; decorateColumn gives up per column instead.
+    private final AtomicInteger constraintFailureCount = new AtomicInteger();
     private boolean wfcEnabled = true;
 
-    public IslandWorldGenerator() {
-        super();
+    public IslandWorldGenerator(long seed) {
+        super(seed);
         try {
             setupWFC();
             setupIslandGeneration();
@@ -37,7 +46,7 @@ public class IslandWorldGenerator extends WorldGenerator {
 
     private void setupIslandGeneration() {
         try {
-            long seed = System.currentTimeMillis();
+            long seed = getSeed();
             islandNoise = new PerlinNoise(seed * 12289);
             islandShapeNoise = new PerlinNoise(seed * 37171);
             archipelagoNoise = new PerlinNoise(seed * 65537);
@@ -51,7 +60,9 @@ public class IslandWorldGenerator extends WorldGenerator {
 
     private void setupWFC() {
         try {
-            this.worldConstraints = new HashSet<>();
+            long seed = getSeed();
+            // Insertion order matters: WFCSolver keeps one constraint per priority
+            this.worldConstraints = new LinkedHashSet<>();
 
             // SIMPLIFIED CONSTRAINTS - less conflicts
 
@@ -67,10 +78,10 @@ public class IslandWorldGenerator extends WorldGenerator {
             this.worldConstraints.add(new ProximityConstraint(BlockType.SAND, BlockType.WATER, 5)); // Larger range
 
             this.worldConstraints.add(new BiomeConstraint(10)); // Add BiomeConstraint
-            this.worldConstraints.add(new StructureConstraint(5)); // Add StructureConstraint
-            this.worldConstraints.add(new StructureConstraint(5)); // Add StructureConstraint
+            this.worldConstraints.add(new StructureConstraint(5, seed)); // Add StructureConstraint
+            this.worldConstraints.add(new StructureConstraint(5, seed)); // Add StructureConstraint
 
-            wfcSolver = new WFCSolver(this.worldConstraints, System.currentTimeMillis());
+            wfcSolver = new WFCSolver(this.worldConstraints, seed);
             System.out.println("WFC setup complete with " + this.worldConstraints.size() + " constraints");
 
         } catch (Exception e) {
@@ -86,23 +97,134 @@ public class IslandWorldGenerator extends WorldGenerator {
             return BlockType.AIR;
         }
 
+        float islandValue = getIslandValue(worldX, worldZ);
+        return getColumnBlockAt(worldX, worldY, worldZ, islandValue, generateIslandHeight(islandValue));
+    }
+
+    // Island value is the per-column sample for this generator
+    @Override
+    protected float sampleColumn(int x, int z) {
+        return getIslandValue(x, z);
+    }
+
+    @Override
+    public float[] sampleColumns(int originX, int originZ, int sizeX, int sizeZ, int step) {
+        int count = sizeX * sizeZ;
+        float[] values = new float[count];
+        if (islandNoise == null || islandShapeNoise == null || archipelagoNoise == null) {
+            for (int j = 0; j < sizeZ; j++) {
+                for (int i = 0; i < sizeX; i++) {
+                    values[i + j * sizeX] = getIslandValue(originX + i * step, originZ + j * step);
+                }
+            }
+            return values;
+        }
+
+        float[] archipelago = new float[count];
+        float[] islandCenters = new float[count];
+        float[] shape = new float[count];
+        archipelagoNoise.noiseGrid2D(archipelago, originX, originZ, sizeX, sizeZ, step, ARCHIPELAGO_FREQUENCY);
+        islandNoise.noiseGrid2D(islandCenters, originX, originZ, sizeX, sizeZ, step, ISLAND_FREQUENCY);
+        islandShapeNoise.noiseGrid2D(shape, originX, originZ, sizeX, sizeZ, step, SHAPE_FREQUENCY);
+        for (int i = 0; i < count; i++) {
+            values[i] = combineIslandValue(archipelago[i], islandCenters[i], shape[i]);
+        }
+        return values;
+    }
+
+    // Terrain of generateColumn without the WFC surface: sand or grass islands, open water elsewhere
+    @Override
+    public void sampleSurface(int originX, int originZ, int sizeX, int sizeZ, int step,
+                              int[] groundHeights, BlockType[] groundBlocks, int[] waterHeights) {
+        float[] values = sampleColumns(originX, originZ, sizeX, sizeZ, step);
+        for (int j = 0; j < sizeZ; j++) {
+            for (int i = 0; i < sizeX; i++) {
+                int index = i + j * sizeX;
+                float islandValue = values[index];
+                groundHeights[index] = 0;
+                groundBlocks[index] = BlockType.AIR;
+                waterHeights[index] = 0;
+                if (originX + i * step < 0 || originZ + j * step < 0) continue;
+                if (islandValue <= OCEAN_BIAS) {
+                    waterHeights[index] = 33;
+                    continue;
+                }
+                float height = generateIslandHeight(islandValue);
+                groundHeights[index] = Math.min((int) Math.floor(height), 63) + 1;
+                groundBlocks[index] = getHeightBasedBlock((int) Math.floor(height), true, height);
+            }
+        }
+    }
+
+    @Override
+    public int generateColumn(int worldX, int worldZ, float islandValue, BlockType[] column) {
+        // Same null safety as getBlockAt: nothing at negative coordinates
+        if (worldX < 0 || worldZ < 0) {
+            return 0;
+        }
+
+        // Island value and height are per column, not per voxel
+        int top = Math.min(column.length, 64);
+
+        if (islandValue <= OCEAN_BIAS) {
+            // Open ocean: water up to sea level, air above
+            top = Math.min(top, 33);
+            for (int y = 0; y < top; y++) {
+                column[y] = BlockType.WATER;
+            }
+            return top;
+        }
+
+        // Terrain only; the WFC surface is applied afterwards by decorateColumn. WFC can place blocks
+        // anywhere from y=25 up, so island columns are filled to the top.
+        float height = generateIslandHeight(islandValue);
+        for (int y = 0; y < top; y++) {
+            column[y] = getHeightBasedBlock(y, true, height);
+        }
+        return top;
+    }
+
+    // The WFC surface pass, split out of generateColumn so the cheap terrain does not wait on it
+    @Override
+    public boolean decorateColumn(int worldX, int worldZ, float islandValue, BlockType[] column) {
+        if (!wfcEnabled || worldX < 0 || worldZ < 0 || islandValue <= OCEAN_BIAS) {
+            return false;
+        }
+        boolean changed = false;
+        int failures = 0;
+        int top = Math.min(column.length, 64);
+        for (int y = WFC_MIN_Y; y < top; y++) {
+            BlockType wfcResult = getWFCBlockAt(worldX, y, worldZ, islandValue);
+            if (wfcResult == null) {
+                constraintFailureCount.incrementAndGet();
+                // The rest of the column keeps its terrain blocks
+                if (++failures >= MAX_WFC_FAILURES_PER_COLUMN) break;
+            } else if (wfcResult != column[y]) {
+                column[y] = wfcResult;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean hasDecoration() {
+        return wfcEnabled;
+    }
+
+    private BlockType getColumnBlockAt(int worldX, int worldY, int worldZ, float islandValue, float height) {
         try {
             // Use WFC for surface and near-surface generation IF enabled and not too many failures
-            if (wfcEnabled && constraintFailureCount < MAX_CONSTRAINT_FAILURES && worldY >= 25) {
-                BlockType wfcResult = getWFCBlockAt(worldX, worldY, worldZ);
+            if (wfcEnabled && worldY >= WFC_MIN_Y) {
+                BlockType wfcResult = getWFCBlockAt(worldX, worldY, worldZ, islandValue);
                 if (wfcResult != null) {
                     return wfcResult;
-                } else {
-                    constraintFailureCount++;
-                    if (constraintFailureCount >= MAX_CONSTRAINT_FAILURES) {
-                        System.err.println("Too many WFC failures, disabling WFC");
-                        wfcEnabled = false;
-                    }
                 }
+                constraintFailureCount.incrementAndGet();
             }
 
             // Fallback to traditional generation
-            return getTraditionalBlockAt(worldX, worldY, worldZ);
+            return getHeightBasedBlock(worldY, islandValue > OCEAN_BIAS, height);
 
         } catch (Exception e) {
             System.err.println("Error generating block at (" + worldX + "," + worldY + "," + worldZ + "): " + e.getMessage());
@@ -111,11 +233,8 @@ public class IslandWorldGenerator extends WorldGenerator {
         }
     }
 
-    private BlockType getWFCBlockAt(int worldX, int worldY, int worldZ) {
+    private BlockType getWFCBlockAt(int worldX, int worldY, int worldZ, float islandValue) {
         try {
-            // Check if this is an island area
-            float islandValue = getIslandValue(worldX, worldZ);
-
             if (islandValue > OCEAN_BIAS) {
                 // Island area - try WFC with timeout
                 return solveForPositionSafe(worldX, worldY, worldZ, true);
@@ -131,16 +250,8 @@ public class IslandWorldGenerator extends WorldGenerator {
 
     private BlockType solveForPositionSafe(int x, int y, int z, boolean isIsland) {
         try {
-            // Time-limited WFC solving
-            long startTime = System.currentTimeMillis();
-
+            // Bounded by attempts only - a wall clock timeout would make the result depend on load
             for (int attempt = 0; attempt < MAX_WFC_ATTEMPTS; attempt++) {
-                // Check timeout
-                if (System.currentTimeMillis() - startTime > MAX_WFC_TIME_MS) {
-                    System.err.println("WFC timeout at (" + x + "," + y + "," + z + ")");
-                    break;
-                }
-
                 try {
                     // Create a mini WFC problem
                     Set<Position> localPositions = new HashSet<>();
@@ -158,8 +269,9 @@ public class IslandWorldGenerator extends WorldGenerator {
                     // Create local context with null safety
                     LocalWorldContext localContext = new LocalWorldContext(x, y, z, isIsland);
 
-                    // Create a new solver for each attempt to ensure different random seeds
-                    WFCSolver attemptSolver = new WFCSolver(this.worldConstraints, System.currentTimeMillis() + attempt);
+                    // New solver per attempt, seeded from the world seed, the position and the attempt number
+                    WFCSolver attemptSolver = new WFCSolver(this.worldConstraints,
+                        PositionRandom.hash(getSeed(), x, y, z, FEATURE_WFC + attempt));
 
                     // Solve with WFC
                     if (attemptSolver.solve(localContext, localPositions)) {
@@ -191,17 +303,10 @@ public class IslandWorldGenerator extends WorldGenerator {
             }
 
             // Multi-scale island generation
-            float archipelago = archipelagoNoise.noise(x * 0.0008f, z * 0.0008f);
-            float islandCenters = islandNoise.noise(x * ISLAND_FREQUENCY, z * ISLAND_FREQUENCY);
-            float shapeDetail = islandShapeNoise.noise(x * 0.01f, z * 0.01f) * 0.3f;
-
-            // Combine scales with island bias
-            float combined = (archipelago + 1) * 0.5f;
-            combined += (islandCenters + 1) * 0.3f;
-            combined += shapeDetail;
-            combined *= ISLAND_SIZE_VARIANCE;
-
-            return Math.min(1.0f, Math.max(0.0f, combined));
+            return combineIslandValue(
+                archipelagoNoise.noise(x * ARCHIPELAGO_FREQUENCY, z * ARCHIPELAGO_FREQUENCY),
+                islandNoise.noise(x * ISLAND_FREQUENCY, z * ISLAND_FREQUENCY),
+                islandShapeNoise.noise(x * SHAPE_FREQUENCY, z * SHAPE_FREQUENCY));
 
         } catch (Exception e) {
             System.err.println("Island value calculation failed: " + e.getMessage());
@@ -210,59 +315,43 @@ public class IslandWorldGenerator extends WorldGenerator {
         }
     }
 
-    // Traditional generation fallback
-    private BlockType getTraditionalBlockAt(int worldX, int worldY, int worldZ) {
-        try {
-            float islandValue = getIslandValue(worldX, worldZ);
-            boolean isIsland = islandValue > OCEAN_BIAS;
+    private float combineIslandValue(float archipelago, float islandCenters, float shape) {
+        float shapeDetail = shape * 0.3f;
 
-            return getHeightBasedBlock(worldX, worldY, worldZ, isIsland);
-        } catch (Exception e) {
-            if (GameSettings.getInstance().isWfcVerboseLoggingEnabled()) {
-                System.out.println("WFC setup complete with " + this.worldConstraints.size() + " constraints");
-            }
-            return getBasicBlockAt(worldX, worldY, worldZ);
-        }
-    }
+        // Combine scales with island bias
+        float combined = (archipelago + 1) * 0.5f;
+        combined += (islandCenters + 1) * 0.3f;
+        combined += shapeDetail;
+        combined *= ISLAND_SIZE_VARIANCE;
 
-    private BlockType getHeightBasedBlock(int x, int y, int z, boolean isIsland) {
-        try {
-            if (!isIsland) {
-                return y <= 32 ? BlockType.WATER : BlockType.AIR;
-            }
+        return Math.min(1.0f, Math.max(0.0f, combined));
+    }
 
-            float height = generateIslandHeight(x, z);
+    private BlockType getHeightBasedBlock(int y, boolean isIsland, float height) {
+        if (!isIsland) {
+            return y <= 32 ? BlockType.WATER : BlockType.AIR;
+        }
 
-            if (y > height) return BlockType.AIR;
-            if (y <= 32 && y > height) return BlockType.WATER;
+        if (y > height) return BlockType.AIR;
 
-            float surfaceDepth = height - y;
+        float surfaceDepth = height - y;
 
-            if (surfaceDepth < 1) {
-                return height > 33 ? BlockType.GRASS : BlockType.SAND;
-            } else if (surfaceDepth < 3) {
-                return height > 33 ? BlockType.DIRT : BlockType.SAND;
-            } else {
-                return BlockType.STONE;
-            }
-        } catch (Exception e) {
-            return getBasicBlockAt(x, y, z);
+        if (surfaceDepth < 1) {
+            return height > 33 ? BlockType.GRASS : BlockType.SAND;
+        } else if (surfaceDepth < 3) {
+            return height > 33 ? BlockType.DIRT : BlockType.SAND;
+        } else {
+            return BlockType.STONE;
         }
     }
 
-    private float generateIslandHeight(int x, int z) {
-        try {
-            float islandValue = getIslandValue(x, z);
-
-            float baseHeight = 32;
-            float islandHeight = (islandValue - OCEAN_BIAS) / (1.0f - OCEAN_BIAS);
-            islandHeight = Math.max(0, islandHeight);
-            islandHeight = (float) Math.pow(islandHeight, 0.7f);
+    private float generateIslandHeight(float islandValue) {
+        float baseHeight = 32;
+        float islandHeight = (islandValue - OCEAN_BIAS) / (1.0f - OCEAN_BIAS);
+        islandHeight = Math.max(0, islandHeight);
+        islandHeight = (float) Math.pow(islandHeight, 0.7f);
 
-            return baseHeight + islandHeight * 25;
-        } catch (Exception e) {
-            return 32 + (float)(Math.sin(x * 0.01) * Math.cos(z * 0.01)) * 10;
-        }
+        return baseHeight + islandHeight * 25;
     }
 
     // Ultimate fallback - basic block generation
@@ -279,6 +368,6 @@ public class IslandWorldGenerator extends WorldGenerator {
     }
 
     public int getConstraintFailureCount() {
-        return constraintFailureCount;
+        return constraintFailureCount.get();
     }
 }
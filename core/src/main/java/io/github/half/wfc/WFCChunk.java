@@ -1,34 +1,21 @@
 package io.github.half.wfc;
 
 import io.github.half.*;
-import com.badlogic.gdx.graphics.g3d.Model;
+import io.github.half.mesh.BlockPalette;
 
 public class WFCChunk extends Chunk {
     private IslandWorldGenerator islandGenerator;
 
-    public WFCChunk(int chunkX, int chunkZ, IslandWorldGenerator generator, Model[] blockModels) {
-        super(chunkX, chunkZ, generator, blockModels);
+    public WFCChunk(int chunkX, int chunkZ, IslandWorldGenerator generator, BlockPalette palette) {
+        super(chunkX, chunkZ, generator, palette);
         this.islandGenerator = generator;
     }
 
     @Override
-    public void generate() {
+    public void generate(boolean parallel) {
         System.out.println("Generating WFC chunk at " + chunkX + ", " + chunkZ);
 
-        // Use WFC-based island generation
-        for (int x = 0; x < CHUNK_SIZE; x++) {
-            for (int z = 0; z < CHUNK_SIZE; z++) {
-                for (int y = 0; y < WORLD_HEIGHT; y++) {
-                    int worldX = chunkX * CHUNK_SIZE + x;
-                    int worldZ = chunkZ * CHUNK_SIZE + z;
-
-                    BlockType blockType = islandGenerator.getBlockAt(worldX, y, worldZ);
-                    setBlockAt(x, y, z, blockType);
-                }
-            }
-        }
-
-        generated = true;
-        createMesh();
+        // Island columns (including the WFC surface pass) come from IslandWorldGenerator.generateColumn
+        super.generate(parallel);
     }
 }
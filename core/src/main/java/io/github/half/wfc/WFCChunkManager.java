@@ -1,14 +1,25 @@
 package io.github.half.wfc;
 
 import io.github.half.*;
-import com.badlogic.gdx.graphics.g3d.Model;
+import io.github.half.mesh.BlockPalette;
 
 public class WFCChunkManager extends ChunkManager {
     private IslandWorldGenerator islandGenerator;
 
-    public WFCChunkManager(Model[] blockModels) {
-        super(blockModels);
-        this.islandGenerator = new IslandWorldGenerator();
+    public WFCChunkManager(BlockPalette palette, long seed) {
+        super(palette, seed);
+        this.islandGenerator = new IslandWorldGenerator(seed);
+    }
+
+    // Island chunks are generated differently from plain-world chunks with the same seed
+    @Override
+    protected String getGeneratorName() {
+        return "islands";
+    }
+
+    @Override
+    public WorldGenerator getWorldGenerator() {
+        return islandGenerator;
     }
 
     @Override
@@ -19,7 +30,7 @@ public class WFCChunkManager extends ChunkManager {
                 operation.chunk.chunkX,
                 operation.chunk.chunkZ,
                 islandGenerator,
-                blockModels
+                palette
             );
 
             ChunkOperation wfcOperation = new ChunkOperation(
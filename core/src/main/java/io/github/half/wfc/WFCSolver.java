@@ -101,7 +101,8 @@ public class WFCSolver {
 
     private BlockType weightedSelection(Set<BlockType> possible, Position pos) {
         // Apply biases based on position and context
-        Map<BlockType, Float> weights = new HashMap<>();
+        // EnumMap keeps the iteration order fixed, so the same roll always picks the same block
+        Map<BlockType, Float> weights = new EnumMap<>(BlockType.class);
 
         for (BlockType type : possible) {
             float weight = 1.0f;
@@ -123,7 +124,7 @@ public class WFCSolver {
             }
         }
 
-        return possible.iterator().next(); // Fallback
+        return weights.keySet().iterator().next(); // Fallback
     }
 
     private float getContextualWeight(BlockType type, Position pos) {
@@ -1,6 +1,7 @@
 package io.github.half.wfc.constraints;
 
 import io.github.half.BlockType;
+import io.github.half.PositionRandom;
 import io.github.half.wfc.Constraint;
 import io.github.half.wfc.Position;
 import io.github.half.wfc.WorldContext;
@@ -8,17 +9,18 @@ import io.github.half.wfc.WorldContext;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.Random;
 
 public class StructureConstraint extends Constraint {
 
+    private static final int FEATURE_STRUCTURE = 100;
+
     private final int priority;
-    private final Random random;
+    private final long seed;
     private final float structureDensity = 0.001f; // 0.1% chance for a structure
 
-    public StructureConstraint(int priority) {
+    public StructureConstraint(int priority, long seed) {
         this.priority = priority;
-        this.random = new Random();
+        this.seed = seed;
     }
 
     @Override
@@ -35,8 +37,8 @@ public class StructureConstraint extends Constraint {
             // Check if the block below is solid
             BlockType blockBelow = context.getBlockAt(position.down());
             if (blockBelow != null && blockBelow.isSolid()) {
-                // Randomly decide to place a structure
-                if (random.nextFloat() < structureDensity) {
+                // Decide per position, so the answer is the same every time this spot is checked
+                if (PositionRandom.nextFloat(seed, position.x, position.y, position.z, FEATURE_STRUCTURE) < structureDensity) {
                     placeStructure(position, context);
                     return false; // Prevent other blocks from being placed here
                 }
@@ -0,0 +1,93 @@
+package io.github.half;
+
+import io.github.half.mesh.SectionConnectivity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CaveCullerTest {
+    private static final int SECTIONS = 4;
+    // Only +x and -x see each other, like a tunnel running along x
+    private static final long TUNNEL_X = 1L << (0 * SectionConnectivity.FACES + 1) | 1L << (1 * SectionConnectivity.FACES + 0);
+
+    private final Map<Long, CaveCuller.Column> columns = new HashMap<>();
+    private final CaveCuller culler = new CaveCuller();
+
+    private CaveCuller.Column column(int chunkX, int chunkZ, long... connectivity) {
+        CaveCuller.Column column = new CaveCuller.Column(chunkX, chunkZ);
+        column.setConnectivity(connectivity);
+        columns.put(ChunkMap.key(chunkX, chunkZ), column);
+        return column;
+    }
+
+    private static long[] uniform(long connectivity) {
+        long[] sections = new long[SECTIONS];
+        Arrays.fill(sections, connectivity);
+        return sections;
+    }
+
+    private boolean compute(float x, float y, float z) {
+        return culler.compute((cx, cz) -> columns.get(ChunkMap.key(cx, cz)), SECTIONS, x, y, z);
+    }
+
+    @Test
+    void openWorldReachesEverySection() {
+        for (int x = -1; x <= 1; x++) {
+            for (int z = -1; z <= 1; z++) {
+                column(x, z, uniform(SectionConnectivity.ALL));
+            }
+        }
+
+        assertTrue(compute(8, 20, 8));
+        for (CaveCuller.Column column : columns.values()) {
+            assertEquals(0b1111, column.getVisibleMask(culler));
+        }
+        assertEquals(9 * SECTIONS, culler.getVisitedCount());
+    }
+
+    @Test
+    void caveBelowSolidGroundIsNotReached() {
+        // Sky, solid ground, an open cave, solid bedrock; camera in the sky
+        CaveCuller.Column column = column(0, 0, 0, SectionConnectivity.ALL, 0, SectionConnectivity.ALL);
+
+        assertTrue(compute(8, 56, 8));
+        // The ground section is entered but leads nowhere
+        assertEquals(0b1100, column.getVisibleMask(culler));
+    }
+
+    @Test
+    void tunnelStopsAtAWall() {
+        CaveCuller.Column start = column(0, 0, uniform(TUNNEL_X));
+        CaveCuller.Column open = column(1, 0, uniform(TUNNEL_X));
+        CaveCuller.Column wall = column(2, 0, uniform(0));
+        CaveCuller.Column behind = column(3, 0, uniform(TUNNEL_X));
+        CaveCuller.Column side = column(0, 1, uniform(SectionConnectivity.ALL));
+
+        assertTrue(compute(8, 8, 8));
+        // The camera's section is left through every face, then the tunnel only leads along x
+        assertEquals(0b0011, start.getVisibleMask(culler));
+        assertEquals(0b0001, open.getVisibleMask(culler));
+        assertEquals(0b0001, wall.getVisibleMask(culler));
+        assertEquals(0, behind.getVisibleMask(culler));
+        // Open on every side, but the walk cannot turn back into the tunnel from here
+        assertEquals(0b1111, side.getVisibleMask(culler));
+    }
+
+    @Test
+    void cameraOutsideTheMeshedWorldMarksNothing() {
+        CaveCuller.Column column = column(0, 0, uniform(SectionConnectivity.ALL));
+        column(5, 5, (long[]) null);
+
+        assertFalse(compute(8, SECTIONS * 16 + 10, 8));
+        assertFalse(compute(8, -1, 8));
+        assertFalse(compute(40, 8, 8)); // No column loaded
+        assertFalse(compute(5 * 16 + 8, 8, 5 * 16 + 8)); // Column without a mesh
+        assertEquals(0, column.getVisibleMask(culler));
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.half;
+
+import io.github.half.wfc.IslandWorldGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Fork-join generation (Chunk.generateTerrain(true)) must give the same chunk as the serial path
+class ChunkGenerationTest {
+    private static final long SEED = 8675309L;
+
+    private static Chunk generate(WorldGenerator generator, int chunkX, int chunkZ, boolean parallel) {
+        Chunk chunk = new Chunk(chunkX, chunkZ, generator, null);
+        chunk.generateTerrain(parallel);
+        chunk.decorate(parallel);
+        return chunk;
+    }
+
+    private static void assertSameBlocks(Chunk expected, Chunk actual) {
+        for (int y = 0; y < 64; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    assertEquals(expected.getBlockAt(x, y, z), actual.getBlockAt(x, y, z),
+                        "block " + x + "," + y + "," + z + " of chunk " + expected.chunkX + "," + expected.chunkZ);
+                }
+            }
+        }
+    }
+
+    @Test
+    void forkJoinTerrainMatchesSerial() {
+        WorldGenerator generator = new WorldGenerator(SEED);
+        for (int chunkX = -2; chunkX <= 1; chunkX++) {
+            for (int chunkZ = -1; chunkZ <= 1; chunkZ++) {
+                assertSameBlocks(generate(generator, chunkX, chunkZ, false), generate(generator, chunkX, chunkZ, true));
+            }
+        }
+    }
+
+    @Test
+    void forkJoinIslandsMatchSerial() {
+        IslandWorldGenerator generator = new IslandWorldGenerator(SEED);
+        for (int chunkX = 18; chunkX <= 19; chunkX++) {
+            for (int chunkZ = 18; chunkZ <= 19; chunkZ++) {
+                assertSameBlocks(generate(generator, chunkX, chunkZ, false), generate(generator, chunkX, chunkZ, true));
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.half;
+
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkMapTest {
+    private static Chunk chunk(int chunkX, int chunkZ) {
+        return new Chunk(chunkX, chunkZ, null, null);
+    }
+
+    @Test
+    void keyRoundTripsNegativeCoordinates() {
+        long key = ChunkMap.key(-3, Integer.MIN_VALUE);
+
+        assertEquals(-3, ChunkMap.keyX(key));
+        assertEquals(Integer.MIN_VALUE, ChunkMap.keyZ(key));
+    }
+
+    @Test
+    void lookupsProbePastRemovedChunks() {
+        ChunkMap map = new ChunkMap();
+        for (int x = -10; x < 10; x++) {
+            for (int z = -10; z < 10; z++) {
+                map.put(chunk(x, z));
+            }
+        }
+        // Leave tombstones in the middle of the probe chains
+        for (int x = -10; x < 10; x += 2) {
+            for (int z = -10; z < 10; z++) {
+                assertEquals(x, map.remove(x, z).chunkX);
+            }
+        }
+
+        assertEquals(200, map.size());
+        for (int x = -10; x < 10; x++) {
+            for (int z = -10; z < 10; z++) {
+                boolean removed = (x & 1) == 0;
+                assertEquals(!removed, map.contains(x, z), "chunk " + x + "," + z);
+            }
+        }
+        assertNull(map.remove(-10, -10));
+    }
+
+    @Test
+    void putReusesTombstonesAndReplacesExistingChunks() {
+        ChunkMap map = new ChunkMap();
+        Chunk first = chunk(1, 1);
+        map.put(first);
+        map.remove(1, 1);
+        assertFalse(map.contains(1, 1));
+
+        Chunk second = chunk(1, 1);
+        assertNull(map.put(second));
+        Chunk third = chunk(1, 1);
+        assertSame(second, map.put(third));
+        assertSame(third, map.get(1, 1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void churnNeverFillsTheTableWithTombstones() {
+        ChunkMap map = new ChunkMap();
+        Chunk kept = chunk(0, 0);
+        map.put(kept);
+
+        // A table with no empty slot left would make a miss probe forever
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 1; i < 100_000; i++) {
+                map.put(chunk(i, -i));
+                map.remove(i, -i);
+                assertNull(map.get(-i, i));
+            }
+        });
+
+        assertSame(kept, map.get(0, 0));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void snapshotOnlyHoldsLiveChunksAndIsReusedUntilAChange() {
+        ChunkMap map = new ChunkMap();
+        map.put(chunk(0, 0));
+        map.put(chunk(0, 1));
+        map.put(chunk(0, 2));
+        map.remove(0, 1);
+
+        Array<Chunk> snapshot = map.snapshot();
+        assertEquals(2, snapshot.size);
+        for (Chunk chunk : snapshot) {
+            assertTrue(chunk.chunkZ != 1);
+        }
+        assertSame(snapshot, map.snapshot());
+
+        map.put(chunk(0, 3));
+        assertEquals(3, map.snapshot().size);
+    }
+}
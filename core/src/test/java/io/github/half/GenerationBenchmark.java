@@ -0,0 +1,120 @@
+package io.github.half;
+
+import io.github.half.wfc.IslandWorldGenerator;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Per-chunk generation latency against the number of fork-join threads, for WorldGenerator and
+ * IslandWorldGenerator. Columns are split one chunk row per task like Chunk.ColumnTask, on pools of
+ * 1, 2, 4 ... availableProcessors threads, then Chunk.generateTerrain + decorate is timed serial and
+ * on its shared pool for comparison. Not a unit test; run with
+ * {@code ./gradlew core:benchmark -Pbench=io.github.half.GenerationBenchmark}.
+ */
+public class GenerationBenchmark {
+    private static final long SEED = 8675309L;
+    private static final int CHUNK_SIZE = 16;
+    private static final int WORLD_HEIGHT = 64;
+    private static final int CHUNKS = 24;
+    private static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String[] args) {
+        // Thread counts go up to the core count, or to the first argument if given
+        int cores = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        run("WorldGenerator", WorldGenerator::new, 0, cores);
+        // Island columns only decorate over land, so start where the island mask is set
+        run("IslandWorldGenerator", IslandWorldGenerator::new, 18, cores);
+    }
+
+    private static void run(String name, LongFunction<WorldGenerator> generators, int originChunk, int cores) {
+        WorldGenerator generator = generators.apply(SEED);
+        System.out.println(name + ", " + CHUNKS + " chunks, ms per chunk (median of the chunks)");
+        for (int threads = 1; threads <= cores; threads = threads == cores ? cores + 1 : Math.min(threads * 2, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int round = 0; round < WARMUP_ROUNDS; round++) timeColumns(generator, pool, originChunk);
+                double[] times = timeColumns(generator, pool, originChunk);
+                System.out.printf("  %2d threads: %8.3f%n", threads, median(times));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) timeChunks(generator, originChunk, parallel);
+            double[] times = timeChunks(generator, originChunk, parallel);
+            System.out.printf("  Chunk.generateTerrain+decorate(%s): %8.3f%n", parallel ? "parallel" : "serial", median(times));
+        }
+    }
+
+    // Terrain then decoration for every column of each chunk, one pool.invoke per stage as Chunk does
+    private static double[] timeColumns(WorldGenerator generator, ForkJoinPool pool, int originChunk) {
+        double[] times = new double[CHUNKS];
+        for (int c = 0; c < CHUNKS; c++) {
+            int baseX = (originChunk + c % 6) * CHUNK_SIZE;
+            int baseZ = (originChunk + c / 6) * CHUNK_SIZE;
+            long start = System.nanoTime();
+            float[] samples = generator.sampleColumns(baseX, baseZ, CHUNK_SIZE, CHUNK_SIZE, 1);
+            BlockType[][] columns = new BlockType[CHUNK_SIZE * CHUNK_SIZE][];
+            pool.invoke(new Split(i -> {
+                BlockType[] column = new BlockType[WORLD_HEIGHT];
+                Arrays.fill(column, BlockType.AIR);
+                generator.generateColumn(baseX + i % CHUNK_SIZE, baseZ + i / CHUNK_SIZE, samples[i], column);
+                columns[i] = column;
+            }, 0, columns.length));
+            if (generator.hasDecoration()) {
+                pool.invoke(new Split(i -> generator.decorateColumn(baseX + i % CHUNK_SIZE, baseZ + i / CHUNK_SIZE,
+                    samples[i], columns[i]), 0, columns.length));
+            }
+            times[c] = (System.nanoTime() - start) / 1e6;
+        }
+        return times;
+    }
+
+    private static double[] timeChunks(WorldGenerator generator, int originChunk, boolean parallel) {
+        double[] times = new double[CHUNKS];
+        for (int c = 0; c < CHUNKS; c++) {
+            Chunk chunk = new Chunk(originChunk + c % 6, originChunk + c / 6, generator, null);
+            long start = System.nanoTime();
+            chunk.generateTerrain(parallel);
+            chunk.decorate(parallel);
+            times[c] = (System.nanoTime() - start) / 1e6;
+        }
+        return times;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // Same split as Chunk.ColumnTask: halve the range until it is one chunk row
+    @SuppressWarnings("serial")
+    private static final class Split extends RecursiveAction {
+        private final IntConsumer work;
+        private final int from, to;
+
+        Split(IntConsumer work, int from, int to) {
+            this.work = work;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Split(work, from, mid), new Split(work, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                work.accept(i);
+            }
+        }
+    }
+}
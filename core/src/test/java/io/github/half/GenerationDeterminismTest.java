@@ -0,0 +1,82 @@
+package io.github.half;
+
+import io.github.half.wfc.IslandWorldGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Same seed, same columns, whatever the thread count or the order the columns are generated in.
+ * Each generator instance is shared by all threads, as ChunkManager shares one across its workers.
+ */
+class GenerationDeterminismTest {
+    private static final long SEED = 8675309L;
+    private static final int WORLD_HEIGHT = 64;
+    private static final int AREA = 32; // Columns per side
+
+    // Terrain plus decoration for one column
+    private static BlockType[] column(WorldGenerator generator, int x, int z) {
+        BlockType[] column = new BlockType[WORLD_HEIGHT];
+        java.util.Arrays.fill(column, BlockType.AIR);
+        float sample = generator.sampleColumns(x, z, 1, 1, 1)[0];
+        generator.generateColumn(x, z, sample, column);
+        generator.decorateColumn(x, z, sample, column);
+        return column;
+    }
+
+    private static BlockType[][] serial(WorldGenerator generator, int originX, int originZ) {
+        BlockType[][] columns = new BlockType[AREA * AREA][];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = column(generator, originX + i % AREA, originZ + i / AREA);
+        }
+        return columns;
+    }
+
+    // Four threads taking the columns in a shuffled order
+    private static BlockType[][] parallel(WorldGenerator generator, int originX, int originZ) throws Exception {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < AREA * AREA; i++) order.add(i);
+        Collections.shuffle(order, new Random(42));
+
+        BlockType[][] columns = new BlockType[AREA * AREA][];
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int i : order) {
+                done.add(threads.submit(() -> {
+                    columns[i] = column(generator, originX + i % AREA, originZ + i / AREA);
+                }));
+            }
+            for (Future<?> future : done) future.get();
+        } finally {
+            threads.shutdown();
+        }
+        return columns;
+    }
+
+    private static void assertDeterministic(LongFunction<WorldGenerator> generators, int originX, int originZ) throws Exception {
+        BlockType[][] expected = serial(generators.apply(SEED), originX, originZ);
+        // A fresh generator with the same seed, and the same one again on four threads
+        assertArrayEquals(expected, serial(generators.apply(SEED), originX, originZ));
+        assertArrayEquals(expected, parallel(generators.apply(SEED), originX, originZ));
+    }
+
+    @Test
+    void terrainIsTheSameSeriallyAndOnFourThreads() throws Exception {
+        assertDeterministic(WorldGenerator::new, -40, 200);
+    }
+
+    @Test
+    void islandsAreTheSameSeriallyAndOnFourThreads() throws Exception {
+        assertDeterministic(IslandWorldGenerator::new, 300, 300);
+    }
+}
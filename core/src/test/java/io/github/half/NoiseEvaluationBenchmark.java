@@ -0,0 +1,136 @@
+package io.github.half;
+
+import io.github.half.wfc.IslandWorldGenerator;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Perlin evaluations and time per chunk for the three ways a chunk's terrain has been produced:
+ * getBlockAt per voxel (the original Chunk.generate), generateColumn per column, and the batched
+ * sampleColumns grid plus generateColumn that Chunk.generateTerrain uses now. Every PerlinNoise
+ * field of the generator is swapped for a counting copy with the same permutation, so the counts
+ * include whatever getBlockAt evaluates per voxel (caves, ores). Grid samples count one each.
+ * Not a unit test; run with {@code ./gradlew core:benchmark -Pbench=io.github.half.NoiseEvaluationBenchmark}.
+ */
+public class NoiseEvaluationBenchmark {
+    private static final int CHUNK_SIZE = 16;
+    private static final int WORLD_HEIGHT = 64;
+    private static final int CHUNKS = 16;
+    private static final long SEED = 8675309L;
+
+    private static long scalarCalls;
+    private static long gridSamples;
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        run("WorldGenerator", WorldGenerator::new, 0);
+        run("IslandWorldGenerator", IslandWorldGenerator::new, 18);
+    }
+
+    private interface ChunkPath {
+        void generate(WorldGenerator generator, int baseX, int baseZ);
+    }
+
+    private static void run(String name, LongFunction<WorldGenerator> generators, int originChunk) throws ReflectiveOperationException {
+        WorldGenerator generator = generators.apply(SEED);
+        instrument(generator);
+        System.out.println(name + ", per chunk over " + CHUNKS + " chunks");
+        measure("per voxel getBlockAt", generator, originChunk, NoiseEvaluationBenchmark::perVoxel);
+        measure("generateColumn", generator, originChunk, NoiseEvaluationBenchmark::perColumn);
+        measure("sampleColumns + generateColumn", generator, originChunk, NoiseEvaluationBenchmark::batched);
+    }
+
+    private static void measure(String label, WorldGenerator generator, int originChunk, ChunkPath path) {
+        // One pass to warm up, one counted and timed
+        for (int pass = 0; pass < 2; pass++) {
+            scalarCalls = 0;
+            gridSamples = 0;
+            long start = System.nanoTime();
+            for (int c = 0; c < CHUNKS; c++) {
+                path.generate(generator, (originChunk + c % 4) * CHUNK_SIZE, (originChunk + c / 4) * CHUNK_SIZE);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (pass == 1) {
+                System.out.printf("  %-32s %8d scalar + %5d grid evaluations, %7.3f ms%n",
+                    label, scalarCalls / CHUNKS, gridSamples / CHUNKS, elapsed / 1e6 / CHUNKS);
+            }
+        }
+    }
+
+    private static void perVoxel(WorldGenerator generator, int baseX, int baseZ) {
+        BlockType[] column = new BlockType[WORLD_HEIGHT];
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                for (int y = 0; y < WORLD_HEIGHT; y++) {
+                    column[y] = generator.getBlockAt(baseX + x, y, baseZ + z);
+                }
+            }
+        }
+        sink = column;
+    }
+
+    private static void perColumn(WorldGenerator generator, int baseX, int baseZ) {
+        BlockType[] column = new BlockType[WORLD_HEIGHT];
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                Arrays.fill(column, BlockType.AIR);
+                generator.generateColumn(baseX + x, baseZ + z, column);
+            }
+        }
+        sink = column;
+    }
+
+    private static void batched(WorldGenerator generator, int baseX, int baseZ) {
+        float[] samples = generator.sampleColumns(baseX, baseZ, CHUNK_SIZE, CHUNK_SIZE, 1);
+        BlockType[] column = new BlockType[WORLD_HEIGHT];
+        for (int i = 0; i < samples.length; i++) {
+            Arrays.fill(column, BlockType.AIR);
+            generator.generateColumn(baseX + i % CHUNK_SIZE, baseZ + i / CHUNK_SIZE, samples[i], column);
+        }
+        sink = column;
+    }
+
+    // Replaces every PerlinNoise field, up the class chain, with a counting copy of the same noise
+    private static void instrument(WorldGenerator generator) throws ReflectiveOperationException {
+        Field permutation = PerlinNoise.class.getDeclaredField("p");
+        permutation.setAccessible(true);
+        for (Class<?> type = generator.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.getType() != PerlinNoise.class) continue;
+                field.setAccessible(true);
+                PerlinNoise original = (PerlinNoise) field.get(generator);
+                CountingNoise counting = new CountingNoise();
+                permutation.set(counting, permutation.get(original));
+                field.set(generator, counting);
+            }
+        }
+    }
+
+    private static final class CountingNoise extends PerlinNoise {
+        CountingNoise() {
+            super(0);
+        }
+
+        // noise(x, y) goes through here too
+        @Override
+        public float noise(float x, float y, float z) {
+            scalarCalls++;
+            return super.noise(x, y, z);
+        }
+
+        @Override
+        public void noiseGrid2D(float[] out, int originX, int originZ, int sizeX, int sizeZ, int step, float frequency) {
+            gridSamples += (long) sizeX * sizeZ;
+            super.noiseGrid2D(out, originX, originZ, sizeX, sizeZ, step, frequency);
+        }
+
+        @Override
+        public void noiseGrid3D(float[] out, int originX, int originY, int originZ, int sizeX, int sizeY, int sizeZ,
+                                int step, float frequencyX, float frequencyY, float frequencyZ) {
+            gridSamples += (long) sizeX * sizeY * sizeZ;
+            super.noiseGrid3D(out, originX, originY, originZ, sizeX, sizeY, sizeZ, step, frequencyX, frequencyY, frequencyZ);
+        }
+    }
+}
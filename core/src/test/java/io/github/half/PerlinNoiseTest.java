@@ -0,0 +1,67 @@
+package io.github.half;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PerlinNoiseTest {
+    private final PerlinNoise noise = new PerlinNoise(1234);
+
+    // Compared as bits: "close enough" would hide a different evaluation order
+    private static void assertSameBits(float expected, float actual, String where) {
+        assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(actual), where);
+    }
+
+    @Test
+    void grid2DMatchesScalarNoise() {
+        int[][] cases = {{0, 0, 16, 16, 1}, {-37, 1000, 18, 5, 1}, {-4096, -4096, 9, 9, 64}, {123456, -7, 4, 33, 3}};
+        float[] frequencies = {0.004f, 0.02f, 0.15f, 1f};
+        for (int[] c : cases) {
+            for (float frequency : frequencies) {
+                int originX = c[0], originZ = c[1], sizeX = c[2], sizeZ = c[3], step = c[4];
+                float[] grid = new float[sizeX * sizeZ];
+                noise.noiseGrid2D(grid, originX, originZ, sizeX, sizeZ, step, frequency);
+
+                for (int j = 0; j < sizeZ; j++) {
+                    for (int i = 0; i < sizeX; i++) {
+                        float x = (originX + i * step) * frequency;
+                        float z = (originZ + j * step) * frequency;
+                        assertSameBits(noise.noise(x, z), grid[i + j * sizeX],
+                            "sample " + i + "," + j + " of " + java.util.Arrays.toString(c) + " at " + frequency);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void grid3DMatchesScalarNoise() {
+        int sizeX = 7, sizeY = 5, sizeZ = 6;
+        int[][] origins = {{0, 0, 0}, {-50, 8, 300}, {1 << 20, 40, -(1 << 20)}};
+        for (int[] origin : origins) {
+            for (int step : new int[]{1, 4}) {
+                float[] grid = new float[sizeX * sizeY * sizeZ];
+                noise.noiseGrid3D(grid, origin[0], origin[1], origin[2], sizeX, sizeY, sizeZ, step, 0.03f, 0.04f, 0.03f);
+
+                for (int y = 0; y < sizeY; y++) {
+                    for (int z = 0; z < sizeZ; z++) {
+                        for (int x = 0; x < sizeX; x++) {
+                            float expected = noise.noise((origin[0] + x * step) * 0.03f, (origin[1] + y * step) * 0.04f,
+                                (origin[2] + z * step) * 0.03f);
+                            assertSameBits(expected, grid[(y * sizeZ + z) * sizeX + x],
+                                "sample " + x + "," + y + "," + z + " step " + step);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void sameSeedGivesTheSameNoise() {
+        PerlinNoise other = new PerlinNoise(1234);
+        for (int i = 0; i < 100; i++) {
+            assertSameBits(noise.noise(i * 0.37f, i * -1.3f, i * 0.11f), other.noise(i * 0.37f, i * -1.3f, i * 0.11f), "sample " + i);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.half;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VoxelRenderableSorterTest {
+    private final PerspectiveCamera camera = new PerspectiveCamera();
+    private final VoxelRenderableSorter sorter = new VoxelRenderableSorter();
+    private final Material stone = new Material(ColorAttribute.createDiffuse(0.5f, 0.5f, 0.5f, 1f));
+    private final Material dirt = new Material(ColorAttribute.createDiffuse(0.6f, 0.4f, 0.2f, 1f));
+    private final Material water = new Material(new BlendingAttribute(0.7f));
+
+    private static Renderable at(Material material, float distance) {
+        Renderable renderable = new Renderable();
+        renderable.material = material;
+        renderable.worldTransform.setToTranslation(distance, 0, 0);
+        return renderable;
+    }
+
+    private static void assertOrder(Array<Renderable> sorted, Renderable... expected) {
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], sorted.get(i), "position " + i);
+        }
+    }
+
+    @Test
+    void opaqueByMaterialNearToFarThenBlendedFarToNear() {
+        Renderable nearStone = at(stone, 1);
+        Renderable farStone = at(stone, 300);
+        Renderable nearDirt = at(dirt, 2);
+        Renderable farDirt = at(dirt, 40);
+        Renderable nearWater = at(water, 3);
+        Renderable farWater = at(water, 500);
+
+        Array<Renderable> renderables = new Array<>();
+        renderables.addAll(nearWater, farDirt, farStone, nearDirt, farWater, nearStone);
+        sorter.sort(camera, renderables);
+
+        // Materials are numbered in the order they are first seen: dirt, then stone
+        assertOrder(renderables, nearDirt, farDirt, nearStone, farStone, farWater, nearWater);
+    }
+
+    @Test
+    void equalKeysKeepSubmissionOrder() {
+        Array<Renderable> renderables = new Array<>();
+        for (int i = 0; i < 50; i++) {
+            // Alternate between two depths so the sort has to move things, but each depth holds a run of equals
+            renderables.add(at(stone, i % 2 == 0 ? 10 : 5));
+        }
+        Array<Renderable> submitted = new Array<>(renderables);
+        sorter.sort(camera, renderables);
+
+        for (int i = 0; i < 25; i++) {
+            assertSame(submitted.get(2 * i + 1), renderables.get(i), "near run " + i);
+            assertSame(submitted.get(2 * i), renderables.get(25 + i), "far run " + i);
+        }
+    }
+
+    @Test
+    void orderIsTheSameAcrossFrames() {
+        Renderable a = at(stone, 8);
+        Renderable b = at(stone, 8);
+        Renderable c = at(water, 8);
+        Renderable d = at(water, 8);
+
+        for (int frame = 0; frame < 3; frame++) {
+            Array<Renderable> renderables = new Array<>();
+            renderables.addAll(c, a, d, b);
+            sorter.sort(camera, renderables);
+            assertOrder(renderables, a, b, c, d);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.half.mesh;
+
+import com.badlogic.gdx.graphics.Color;
+import io.github.half.BlockType;
+import io.github.half.Chunk;
+import io.github.half.WorldGenerator;
+import io.github.half.storage.ChunkSection;
+import io.github.half.wfc.IslandWorldGenerator;
+
+import java.util.function.LongFunction;
+
+/**
+ * Draw counts of the greedy chunk mesh against the one-ModelInstance-per-visible-block path it
+ * replaced: instances (old), visible faces, greedy quads, vertices and GL parts, plus meshing time.
+ * The inner 4x4 of a 6x6 grid of generated chunks is meshed so every chunk has real neighbors.
+ * Not a unit test; run with {@code ./gradlew core:benchmark -Pbench=io.github.half.mesh.MeshCountBenchmark}.
+ */
+public class MeshCountBenchmark {
+    private static final int CHUNK_SIZE = 16;
+    private static final int WORLD_HEIGHT = 64;
+    private static final int GRID = 6;
+
+    public static void main(String[] args) {
+        // The colors Main draws with; only which types are drawn and translucent matters here
+        BlockPalette palette = new BlockPalette()
+            .set(BlockType.STONE, Color.GRAY)
+            .set(BlockType.DIRT, Color.BROWN)
+            .set(BlockType.GRASS, Color.GREEN)
+            .set(BlockType.SAND, Color.YELLOW)
+            .set(BlockType.WATER, new Color(0.2f, 0.5f, 1f, 0.7f))
+            .set(BlockType.COAL, Color.DARK_GRAY)
+            .set(BlockType.IRON, Color.ORANGE)
+            .set(BlockType.GOLD, Color.GOLD)
+            .set(BlockType.DIAMOND, Color.CYAN)
+            .set(BlockType.CRYSTAL, Color.MAGENTA)
+            .set(BlockType.OIL, Color.BLACK);
+        run("WorldGenerator", WorldGenerator::new, 0, palette);
+        run("IslandWorldGenerator", IslandWorldGenerator::new, 18, palette);
+    }
+
+    private static void run(String name, LongFunction<WorldGenerator> generators, int originChunk, BlockPalette palette) {
+        WorldGenerator generator = generators.apply(8675309L);
+        Chunk[][] chunks = new Chunk[GRID][GRID];
+        for (int x = 0; x < GRID; x++) {
+            for (int z = 0; z < GRID; z++) {
+                chunks[x][z] = new Chunk(originChunk + x, originChunk + z, generator, null);
+                chunks[x][z].generateTerrain(false);
+                chunks[x][z].decorate(false);
+            }
+        }
+
+        long instances = 0, faces = 0, quads = 0, vertices = 0, parts = 0, nanos = 0;
+        int meshed = 0;
+        PaddedBlocks blocks = new PaddedBlocks(CHUNK_SIZE, WORLD_HEIGHT, CHUNK_SIZE);
+        for (int round = 0; round < 2; round++) { // The first round warms up and is not counted
+            instances = faces = quads = vertices = parts = nanos = 0;
+            meshed = 0;
+            for (int x = 1; x < GRID - 1; x++) {
+                for (int z = 1; z < GRID - 1; z++) {
+                    snapshot(chunks, x, z, blocks);
+                    instances += countVisibleBlocks(blocks, palette);
+                    long start = System.nanoTime();
+                    ChunkMeshData data = GreedyMesher.mesh(blocks, palette, CHUNK_SIZE, WORLD_HEIGHT, CHUNK_SIZE, ChunkSection.SIZE);
+                    nanos += System.nanoTime() - start;
+                    faces += data.faceCount;
+                    quads += data.quadCount;
+                    for (ChunkMeshData.Part part : data.parts) vertices += part.getVertexCount();
+                    parts += data.parts.size;
+                    data.release();
+                    meshed++;
+                }
+            }
+        }
+        System.out.printf("%s, %d chunks: %d instances before, %d visible faces, %d quads (%.1fx fewer than faces), "
+                + "%d vertices, %d GL parts, %.3f ms per chunk to mesh%n",
+            name, meshed, instances, faces, quads, faces / (double) Math.max(1, quads), vertices, parts, nanos / 1e6 / meshed);
+    }
+
+    // The chunk plus a one-block ring from its neighbors, as Chunk.snapshotForMesh builds it
+    private static void snapshot(Chunk[][] chunks, int cx, int cz, PaddedBlocks blocks) {
+        for (int x = -1; x <= CHUNK_SIZE; x++) {
+            for (int z = -1; z <= CHUNK_SIZE; z++) {
+                int gx = cx * CHUNK_SIZE + x, gz = cz * CHUNK_SIZE + z;
+                Chunk chunk = chunks[Math.floorDiv(gx, CHUNK_SIZE)][Math.floorDiv(gz, CHUNK_SIZE)];
+                for (int y = 0; y < WORLD_HEIGHT; y++) {
+                    blocks.set(x, y, z, chunk.getBlockAt(Math.floorMod(gx, CHUNK_SIZE), y, Math.floorMod(gz, CHUNK_SIZE)));
+                }
+            }
+        }
+    }
+
+    // The old path made one ModelInstance for every drawn block with at least one visible face
+    private static int countVisibleBlocks(PaddedBlocks blocks, BlockPalette palette) {
+        int[][] sides = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
+        int count = 0;
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int y = 0; y < WORLD_HEIGHT; y++) {
+                for (int z = 0; z < CHUNK_SIZE; z++) {
+                    BlockType type = blocks.getBlock(x, y, z);
+                    if (type == BlockType.AIR || !palette.isDrawn(type)) continue;
+                    for (int[] side : sides) {
+                        BlockType neighbor = blocks.getBlock(x + side[0], y + side[1], z + side[2]);
+                        // GreedyMesher's face rule
+                        if (neighbor == BlockType.AIR || (!neighbor.isOpaque() && neighbor != type)) {
+                            count++;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.half.mesh;
+
+import io.github.half.BlockType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SectionConnectivityTest {
+    private static final int SIZE = 16;
+    // Faces, see SectionConnectivity
+    private static final int POS_X = 0, NEG_X = 1, POS_Y = 2, NEG_Y = 3, POS_Z = 4, NEG_Z = 5;
+
+    private static PaddedBlocks filled(BlockType type) {
+        PaddedBlocks blocks = new PaddedBlocks(SIZE, SIZE, SIZE);
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                blocks.fillColumn(x, z, 0, SIZE, type);
+            }
+        }
+        return blocks;
+    }
+
+    private static long compute(PaddedBlocks blocks) {
+        return SectionConnectivity.compute(blocks, SIZE, SIZE, 0, SIZE);
+    }
+
+    @Test
+    void uniformSectionsMatchTheFloodFill() {
+        assertEquals(compute(filled(BlockType.AIR)), SectionConnectivity.ofUniform(BlockType.AIR));
+        assertEquals(compute(filled(BlockType.WATER)), SectionConnectivity.ofUniform(BlockType.WATER));
+        assertEquals(compute(filled(BlockType.STONE)), SectionConnectivity.ofUniform(BlockType.STONE));
+        assertEquals(SectionConnectivity.ALL, SectionConnectivity.ofUniform(BlockType.AIR));
+        assertEquals(0, SectionConnectivity.ofUniform(BlockType.STONE));
+    }
+
+    @Test
+    void wallSeparatesItsTwoSides() {
+        PaddedBlocks blocks = filled(BlockType.AIR);
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                blocks.set(SIZE / 2, y, z, BlockType.STONE);
+            }
+        }
+        long connectivity = compute(blocks);
+
+        assertFalse(SectionConnectivity.isConnected(connectivity, POS_X, NEG_X));
+        assertFalse(SectionConnectivity.isConnected(connectivity, NEG_X, POS_X));
+        // Either side still reaches the faces along the wall
+        assertTrue(SectionConnectivity.isConnected(connectivity, POS_X, POS_Y));
+        assertTrue(SectionConnectivity.isConnected(connectivity, NEG_X, NEG_Z));
+        assertTrue(SectionConnectivity.isConnected(connectivity, POS_Y, NEG_Y));
+        assertTrue(SectionConnectivity.isConnected(connectivity, POS_Z, NEG_Z));
+    }
+
+    @Test
+    void tunnelOnlyConnectsItsEnds() {
+        PaddedBlocks blocks = filled(BlockType.STONE);
+        for (int x = 0; x < SIZE; x++) {
+            blocks.set(x, SIZE / 2, SIZE / 2, BlockType.AIR);
+        }
+        long connectivity = compute(blocks);
+
+        assertTrue(SectionConnectivity.isConnected(connectivity, POS_X, NEG_X));
+        assertTrue(SectionConnectivity.isConnected(connectivity, NEG_X, POS_X));
+        assertFalse(SectionConnectivity.isConnected(connectivity, POS_Y, NEG_Y));
+        assertFalse(SectionConnectivity.isConnected(connectivity, POS_Z, NEG_Z));
+        assertFalse(SectionConnectivity.isConnected(connectivity, POS_X, POS_Y));
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.half.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EditJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void packRoundTripsNegativeCoordinates() {
+        long record = EditJournal.pack(-17, 63, -40000, 5);
+
+        assertEquals(-17, EditJournal.unpackX(record));
+        assertEquals(63, EditJournal.unpackY(record));
+        assertEquals(-40000, EditJournal.unpackZ(record));
+        assertEquals(5, EditJournal.unpackOrdinal(record));
+    }
+
+    @Test
+    void replaysEditsPerChunkInOrder() throws IOException {
+        Path file = directory.resolve("edits.journal");
+        EditJournal journal = new EditJournal(file);
+        journal.append(1, 10, 2, 3);
+        journal.append(20, 11, 2, 4); // Chunk (1, 0)
+        journal.append(1, 10, 2, 0); // Same block again, later value wins on replay
+        journal.append(-1, 12, -1, 2); // Chunk (-1, -1)
+        journal.close();
+
+        EditJournal reopened = new EditJournal(file);
+        assertArrayEquals(new long[]{EditJournal.pack(1, 10, 2, 3), EditJournal.pack(1, 10, 2, 0)},
+            reopened.takeReplay(0, 0));
+        assertArrayEquals(new long[]{EditJournal.pack(20, 11, 2, 4)}, reopened.takeReplay(1, 0));
+        assertArrayEquals(new long[]{EditJournal.pack(-1, 12, -1, 2)}, reopened.takeReplay(-1, -1));
+        // Each chunk gets its edits once
+        assertNull(reopened.takeReplay(0, 0));
+        reopened.close();
+    }
+
+    @Test
+    void flushedChunksAreNotReplayed() throws IOException {
+        Path file = directory.resolve("edits.journal");
+        EditJournal journal = new EditJournal(file);
+        journal.append(1, 10, 2, 3);
+        long saved = journal.currentSequence();
+        journal.append(20, 11, 2, 4);
+        journal.markFlushed(0, 0, saved);
+        // Saved before its newest edit, so it stays live
+        journal.markFlushed(1, 0, saved);
+        journal.close();
+
+        EditJournal reopened = new EditJournal(file);
+        assertNull(reopened.takeReplay(0, 0));
+        assertArrayEquals(new long[]{EditJournal.pack(20, 11, 2, 4)}, reopened.takeReplay(1, 0));
+        reopened.close();
+    }
+
+    @Test
+    void tornLastRecordIsIgnored() throws IOException {
+        Path file = directory.resolve("edits.journal");
+        EditJournal journal = new EditJournal(file);
+        journal.append(1, 10, 2, 3);
+        journal.close();
+        Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        EditJournal reopened = new EditJournal(file);
+        assertArrayEquals(new long[]{EditJournal.pack(1, 10, 2, 3)}, reopened.takeReplay(0, 0));
+        reopened.close();
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.half.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionFileTest {
+    @TempDir
+    Path directory;
+
+    // Random bytes barely compress, so the payload size controls the sector count
+    private static byte[] payload(long seed, int length) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    void roundTripsChunks() throws IOException {
+        RegionFile region = new RegionFile(directory.resolve("r.0.0.vxr"));
+        byte[] small = payload(1, 100);
+        byte[] large = payload(2, 3 * RegionFile.SECTOR_SIZE);
+
+        region.write(0, 0, small);
+        region.write(31, 31, large);
+
+        assertArrayEquals(small, region.read(0, 0));
+        assertArrayEquals(large, region.read(31, 31));
+        assertTrue(region.hasChunk(31, 31));
+        assertFalse(region.hasChunk(5, 5));
+        assertNull(region.read(5, 5));
+        region.close();
+    }
+
+    @Test
+    void reopenedRegionServesTheLatestPayloads() throws IOException {
+        Path file = directory.resolve("r.0.0.vxr");
+        byte[] grown = payload(3, 2 * RegionFile.SECTOR_SIZE);
+        byte[] rewritten = payload(4, 200);
+        byte[] kept = payload(5, 300);
+
+        RegionFile region = new RegionFile(file);
+        region.write(1, 0, payload(6, 100));
+        region.write(2, 0, payload(7, 100));
+        region.write(3, 0, kept);
+        region.write(1, 0, grown); // Moves to a bigger run
+        region.write(2, 0, rewritten); // Same size, still a fresh run
+        region.close();
+
+        RegionFile reopened = new RegionFile(file);
+        assertArrayEquals(grown, reopened.read(1, 0));
+        assertArrayEquals(rewritten, reopened.read(2, 0));
+        assertArrayEquals(kept, reopened.read(3, 0));
+        reopened.close();
+    }
+
+    @Test
+    void rewriteLeavesTheOldRunFreeUntilCompaction() throws IOException {
+        Path file = directory.resolve("r.0.0.vxr");
+        RegionFile region = new RegionFile(file);
+        region.write(0, 0, payload(8, 100));
+        region.write(0, 0, payload(9, 100));
+
+        assertEquals(1, region.getFreeSectorCount());
+        region.close();
+
+        // Header plus the one live payload
+        assertEquals(2L * RegionFile.SECTOR_SIZE, Files.size(file));
+        assertFalse(Files.exists(directory.resolve("r.0.0.vxr.tmp")));
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.half.storage;
+
+import io.github.half.BlockType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PaletteBlockStorageTest {
+    private static final int SIZE = 16;
+
+    // Deterministic mix of types so every voxel's value depends on its position
+    private static BlockType expected(int x, int y, int z, int typeCount) {
+        BlockType[] types = BlockType.values();
+        return types[(x * 7 + y * 13 + z * 31) % typeCount];
+    }
+
+    @Test
+    void startsAsFillWithOneBit() {
+        PaletteBlockStorage storage = new PaletteBlockStorage(SIZE, SIZE, SIZE, BlockType.STONE);
+
+        assertEquals(BlockType.STONE, storage.get(0, 0, 0));
+        assertEquals(BlockType.STONE, storage.get(SIZE - 1, SIZE - 1, SIZE - 1));
+        assertEquals(1, storage.getBitsPerEntry());
+        assertEquals(1, storage.getPaletteSize());
+    }
+
+    @Test
+    void resizeKeepsEveryVoxel() {
+        PaletteBlockStorage storage = new PaletteBlockStorage(SIZE, SIZE, SIZE);
+        int typeCount = BlockType.values().length;
+
+        // Each pass adds more types than the current bit width can address, forcing a re-pack
+        for (int types = 2; types <= typeCount; types++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    for (int x = 0; x < SIZE; x++) {
+                        storage.set(x, y, z, expected(x, y, z, types));
+                    }
+                }
+            }
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    for (int x = 0; x < SIZE; x++) {
+                        assertEquals(expected(x, y, z, types), storage.get(x, y, z), "at " + x + "," + y + "," + z);
+                    }
+                }
+            }
+        }
+
+        assertEquals(typeCount, storage.getPaletteSize());
+        assertEquals(32 - Integer.numberOfLeadingZeros(typeCount - 1), storage.getBitsPerEntry());
+    }
+
+    @Test
+    void resizeKeepsValuesWrittenBeforeIt() {
+        PaletteBlockStorage storage = new PaletteBlockStorage(SIZE, SIZE, SIZE);
+        storage.set(1, 2, 3, BlockType.DIRT);
+        storage.set(15, 15, 15, BlockType.GRASS);
+        assertEquals(2, storage.getBitsPerEntry());
+
+        // Fourth and fifth palette entries: 2 -> 3 bits
+        storage.set(4, 5, 6, BlockType.WATER);
+        storage.set(7, 8, 9, BlockType.SAND);
+
+        assertEquals(3, storage.getBitsPerEntry());
+        assertEquals(BlockType.DIRT, storage.get(1, 2, 3));
+        assertEquals(BlockType.GRASS, storage.get(15, 15, 15));
+        assertEquals(BlockType.WATER, storage.get(4, 5, 6));
+        assertEquals(BlockType.SAND, storage.get(7, 8, 9));
+        assertEquals(BlockType.AIR, storage.get(0, 0, 0));
+    }
+
+    @Test
+    void nullWritesAir() {
+        PaletteBlockStorage storage = new PaletteBlockStorage(SIZE, SIZE, SIZE, BlockType.STONE);
+        storage.set(3, 3, 3, null);
+
+        assertEquals(BlockType.AIR, storage.get(3, 3, 3));
+        assertEquals(BlockType.STONE, storage.get(3, 3, 4));
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.half.storage;
+
+import io.github.half.BlockType;
+import io.github.half.Chunk;
+import io.github.half.WorldGenerator;
+
+/**
+ * Memory and read/write throughput of PaletteBlockStorage against the BlockType[][][] it replaced,
+ * over real generated terrain. Heap is measured as the retained size of all chunks after a GC, next
+ * to what getMemoryUsage reports. Not a unit test; run with
+ * {@code ./gradlew core:benchmark -Pbench=io.github.half.storage.StorageBenchmark}.
+ */
+public class StorageBenchmark {
+    private static final int SIZE_X = 16, SIZE_Y = 64, SIZE_Z = 16;
+    private static final int CHUNKS_PER_SIDE = 16;
+    private static final int ROUNDS = 5;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        WorldGenerator generator = new WorldGenerator(8675309L);
+        int count = CHUNKS_PER_SIDE * CHUNKS_PER_SIDE;
+        BlockType[][][][] source = new BlockType[count][][][];
+        for (int i = 0; i < count; i++) {
+            Chunk chunk = new Chunk(i % CHUNKS_PER_SIDE, i / CHUNKS_PER_SIDE, generator, null);
+            chunk.generateTerrain(false);
+            source[i] = copyOut(chunk);
+        }
+        System.out.println(count + " chunks of " + SIZE_X + "x" + SIZE_Y + "x" + SIZE_Z);
+
+        long before = usedHeap();
+        BlockType[][][][] arrays = new BlockType[count][][][];
+        for (int i = 0; i < count; i++) arrays[i] = toArray(source[i]);
+        long arrayHeap = usedHeap() - before;
+
+        before = usedHeap();
+        PaletteBlockStorage[] palettes = new PaletteBlockStorage[count];
+        long reported = 0;
+        for (int i = 0; i < count; i++) {
+            palettes[i] = toPalette(source[i]);
+            reported += palettes[i].getMemoryUsage();
+        }
+        long paletteHeap = usedHeap() - before;
+
+        System.out.printf("memory per chunk: BlockType[][][] %d B, palette %d B (getMemoryUsage %d B)%n",
+            arrayHeap / count, paletteHeap / count, reported / count);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long arrayRead = timeArrayReads(arrays), paletteRead = timePaletteReads(palettes);
+            long arrayWrite = timeArrayWrites(arrays), paletteWrite = timePaletteWrites(palettes);
+            System.out.printf("round %d: reads ns/voxel array %.2f palette %.2f, writes ns/voxel array %.2f palette %.2f%n",
+                round, perVoxel(arrayRead, count), perVoxel(paletteRead, count),
+                perVoxel(arrayWrite, count), perVoxel(paletteWrite, count));
+        }
+        sink = arrays;
+        sink = palettes;
+    }
+
+    private static BlockType[][][] copyOut(Chunk chunk) {
+        BlockType[][][] blocks = new BlockType[SIZE_X][SIZE_Y][SIZE_Z];
+        for (int x = 0; x < SIZE_X; x++)
+            for (int y = 0; y < SIZE_Y; y++)
+                for (int z = 0; z < SIZE_Z; z++)
+                    blocks[x][y][z] = chunk.getBlockAt(x, y, z);
+        return blocks;
+    }
+
+    private static BlockType[][][] toArray(BlockType[][][] source) {
+        BlockType[][][] blocks = new BlockType[SIZE_X][SIZE_Y][SIZE_Z];
+        for (int x = 0; x < SIZE_X; x++)
+            for (int y = 0; y < SIZE_Y; y++)
+                System.arraycopy(source[x][y], 0, blocks[x][y], 0, SIZE_Z);
+        return blocks;
+    }
+
+    private static PaletteBlockStorage toPalette(BlockType[][][] source) {
+        PaletteBlockStorage storage = new PaletteBlockStorage(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int x = 0; x < SIZE_X; x++)
+            for (int y = 0; y < SIZE_Y; y++)
+                for (int z = 0; z < SIZE_Z; z++)
+                    storage.set(x, y, z, source[x][y][z]);
+        return storage;
+    }
+
+    // Full scans in the y-z-x order the mesher and lighting walk in
+    private static long timeArrayReads(BlockType[][][][] chunks) {
+        long start = System.nanoTime();
+        int solid = 0;
+        for (BlockType[][][] blocks : chunks)
+            for (int y = 0; y < SIZE_Y; y++)
+                for (int z = 0; z < SIZE_Z; z++)
+                    for (int x = 0; x < SIZE_X; x++)
+                        if (blocks[x][y][z] != BlockType.AIR) solid++;
+        sink = solid;
+        return System.nanoTime() - start;
+    }
+
+    private static long timePaletteReads(PaletteBlockStorage[] chunks) {
+        long start = System.nanoTime();
+        int solid = 0;
+        for (PaletteBlockStorage storage : chunks)
+            for (int y = 0; y < SIZE_Y; y++)
+                for (int z = 0; z < SIZE_Z; z++)
+                    for (int x = 0; x < SIZE_X; x++)
+                        if (storage.get(x, y, z) != BlockType.AIR) solid++;
+        sink = solid;
+        return System.nanoTime() - start;
+    }
+
+    // Rewrites every voxel with the value it already holds, so the palette never has to grow
+    private static long timeArrayWrites(BlockType[][][][] chunks) {
+        long start = System.nanoTime();
+        for (BlockType[][][] blocks : chunks)
+            for (int y = 0; y < SIZE_Y; y++)
+                for (int z = 0; z < SIZE_Z; z++)
+                    for (int x = 0; x < SIZE_X; x++)
+                        blocks[x][y][z] = blocks[x][y][z];
+        return System.nanoTime() - start;
+    }
+
+    private static long timePaletteWrites(PaletteBlockStorage[] chunks) {
+        long start = System.nanoTime();
+        for (PaletteBlockStorage storage : chunks)
+            for (int y = 0; y < SIZE_Y; y++)
+                for (int z = 0; z < SIZE_Z; z++)
+                    for (int x = 0; x < SIZE_X; x++)
+                        storage.set(x, y, z, storage.get(x, y, z));
+        return System.nanoTime() - start;
+    }
+
+    private static double perVoxel(long nanos, int chunks) {
+        return nanos / (double) ((long) chunks * SIZE_X * SIZE_Y * SIZE_Z);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.half.storage;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.github.half.Chunk;
+import io.github.half.WorldGenerator;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * GC pauses while streaming chunks through a fixed view window, palette (heap) sections against
+ * direct (off-heap, pooled) sections. The player walks in a straight line; every step loads a new
+ * row of chunks and disposes the row behind. Pauses come from the HotSpot GC notifications, so this
+ * needs a HotSpot-based JVM. Each backend runs in the same JVM after a full GC; for fully separate
+ * heaps run it twice with the backend named as the first argument.
+ * Not a unit test; run with {@code ./gradlew core:benchmark -Pbench=io.github.half.storage.StorageGcBenchmark}.
+ */
+public class StorageGcBenchmark {
+    private static final int VIEW = 12;     // Chunks per side of the loaded window
+    private static final int STEPS = 400;   // Rows streamed in per run
+
+    private static final List<Long> pauses = Collections.synchronizedList(new ArrayList<>());
+
+    public static void main(String[] args) {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                pauses.add(info.getGcInfo().getDuration());
+            }, null, null);
+        }
+
+        List<StorageBackend> backends = args.length > 0
+            ? List.of(StorageBackend.valueOf(args[0].toUpperCase()))
+            : List.of(StorageBackend.PALETTE, StorageBackend.DIRECT);
+        WorldGenerator generator = new WorldGenerator(8675309L);
+        stream(generator, StorageBackend.PALETTE, 20); // Warm-up, not reported
+        for (StorageBackend backend : backends) {
+            System.gc();
+            pauses.clear();
+            long start = System.nanoTime();
+            stream(generator, backend, STEPS);
+            long elapsed = System.nanoTime() - start;
+            report(backend, elapsed);
+        }
+    }
+
+    private static void stream(WorldGenerator generator, StorageBackend backend, int steps) {
+        ChunkSection.setStorageBackend(backend);
+        ArrayDeque<Chunk[]> rows = new ArrayDeque<>();
+        for (int z = 0; z < VIEW + steps; z++) {
+            Chunk[] row = new Chunk[VIEW];
+            for (int x = 0; x < VIEW; x++) {
+                row[x] = new Chunk(x, z, generator, null);
+                row[x].generateTerrain(false);
+                row[x].computeLight();
+            }
+            rows.addLast(row);
+            if (rows.size() > VIEW) {
+                for (Chunk chunk : rows.removeFirst()) chunk.dispose();
+            }
+        }
+        for (Chunk[] row : rows) {
+            for (Chunk chunk : row) chunk.dispose();
+        }
+    }
+
+    private static void report(StorageBackend backend, long elapsedNanos) {
+        List<Long> sorted;
+        synchronized (pauses) {
+            sorted = new ArrayList<>(pauses);
+        }
+        Collections.sort(sorted);
+        long total = 0;
+        for (long pause : sorted) total += pause;
+        long p99 = sorted.isEmpty() ? 0 : sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * 0.99)));
+        long max = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1);
+        System.out.printf("%-7s %d chunks in %d ms: %d GCs, %d ms total, p99 %d ms, max %d ms, pool %d KB reserved%n",
+            backend, (long) STEPS * VIEW, elapsedNanos / 1_000_000, sorted.size(), total, p99, max,
+            StorageBackend.getSectionPool().getReservedBytes() / 1024);
+    }
+}